@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 @ConfigurationProperties(prefix = "app")
 @Data
@@ -12,12 +15,46 @@ public class AppProperties {
     private Ollama ollama = new Ollama();
     private Cors cors = new Cors();
     private TestRunner testRunner = new TestRunner();
+    private Generation generation = new Generation();
+    private Insights insights = new Insights();
 
     @Data
     public static class Ollama {
         private String url = "http://localhost:11434/api";
         private String model = "deepseek-r1:1.5b";
         private int timeout = 120000;
+        private int maxConcurrentRequests = 2;
+        private int bulkheadMaxWait = 120000;
+        private int connectTimeout = 5000;
+        private int readTimeout = 240000;
+        private int maxConnections = 10;
+        private int maxIdleTime = 300000;
+        private String keepAlive = "30m";
+        private boolean warmUp = true;
+        private int healthCheckInterval = 30000;
+        private CircuitBreaker circuitBreaker = new CircuitBreaker();
+        private List<Backend> backends = new ArrayList<>();
+        private Routing routing = new Routing();
+    }
+
+    @Data
+    public static class Routing {
+        private String escalationModel = "";
+        private int maxPromptSize = 24000;
+        private int maxSchemaDepth = 8;
+    }
+
+    @Data
+    public static class Backend {
+        private String url;
+        private List<String> models = new ArrayList<>();
+        private Integer maxConcurrentRequests;
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        private int failureThreshold = 5;
+        private int openDuration = 30000;
     }
 
     @Data
@@ -27,9 +64,62 @@ public class AppProperties {
         private String allowedHeaders = "*";
     }
 
+    @Data
+    public static class Generation {
+        private String mode = "llm";
+        private String chunking = "auto";
+        private int chunkThreshold = 20;
+        private int maxConcurrency = 2;
+        private Cache cache = new Cache();
+        private Jobs jobs = new Jobs();
+        private Validation validation = new Validation();
+    }
+
+    @Data
+    public static class Validation {
+        private String policy = "drop";
+        private boolean reprompt = false;
+    }
+
+    @Data
+    public static class Jobs {
+        private int threads = 2;
+        private int queueCapacity = 50;
+        // Hosts generation job callbacks may be posted to, callbacks are rejected while empty
+        private List<String> callbackHosts = new ArrayList<>();
+    }
+
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+        private boolean persistent = true;
+        private int memorySize = 256;
+    }
+
+    @Data
+    public static class Insights {
+        private int threads = 1;
+        private int queueCapacity = 100;
+    }
+
     @Data
     public static class TestRunner {
         private int defaultTimeout = 30000;
         private int maxConcurrency = 10;
+        private boolean preflightCheck = true;
+        private int preflightTimeout = 5000;
+        private int circuitBreakerThreshold = 5;
+        private int failureRateMinSamples = 10;
+        private AdaptiveTimeout adaptiveTimeout = new AdaptiveTimeout();
+    }
+
+    @Data
+    public static class AdaptiveTimeout {
+        private double percentile = 95;
+        private double safetyFactor = 3.0;
+        private int minTimeout = 1000;
+        private int maxTimeout = 30000;
+        private int historySize = 20;
+        private int minSamples = 5;
     }
 }
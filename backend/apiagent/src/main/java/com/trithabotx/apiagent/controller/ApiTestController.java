@@ -1,6 +1,10 @@
 package com.trithabotx.apiagent.controller;
 
 import com.trithabotx.apiagent.dto.ApiSpecDTO;
+import com.trithabotx.apiagent.dto.ApiSpecInfoDTO;
+import com.trithabotx.apiagent.dto.GenerationEventDTO;
+import com.trithabotx.apiagent.dto.GenerationJobDTO;
+import com.trithabotx.apiagent.dto.GenerationQueueDTO;
 import com.trithabotx.apiagent.dto.ReportDTO;
 import com.trithabotx.apiagent.dto.ReportListItemDTO;
 import com.trithabotx.apiagent.dto.TestCaseDTO;
@@ -8,6 +12,10 @@ import com.trithabotx.apiagent.dto.TestRunConfigDTO;
 import com.trithabotx.apiagent.dto.TestRunDTO;
 import com.trithabotx.apiagent.dto.TestRunResultDTO;
 import com.trithabotx.apiagent.dto.TestSuiteDTO;
+import com.trithabotx.apiagent.model.TestResult;
+import com.trithabotx.apiagent.service.ApiSpecStorage;
+import com.trithabotx.apiagent.service.GenerationCache;
+import com.trithabotx.apiagent.service.GenerationJobService;
 import com.trithabotx.apiagent.service.ReportService;
 import com.trithabotx.apiagent.service.TestCaseGeneratorService;
 import com.trithabotx.apiagent.service.TestRunnerService;
@@ -18,7 +26,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -28,7 +38,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 
 @RestController
@@ -40,23 +54,122 @@ public class ApiTestController {
     private final TestCaseGeneratorService testCaseGeneratorService;
     private final TestRunnerService testRunnerService;
     private final ReportService reportService;
+    private final GenerationCache generationCache;
+    private final GenerationJobService generationJobService;
+    private final ApiSpecStorage apiSpecStorage;
 
     @Tag(name = "Test Cases")
     @Operation(summary = "Generate test cases from API specification")
     @PostMapping("/test-cases/generate")
     public ResponseEntity<TestSuiteDTO> generateTestCases(@RequestBody ApiSpecDTO apiSpec) {
         log.info("Received request to generate test cases");
-        System.out.println(apiSpec);
-        TestSuiteDTO testSuite = testCaseGeneratorService.generateTestCases(apiSpec.getContent());
+        TestSuiteDTO testSuite = testCaseGeneratorService.generateTestCases(apiSpec);
         return ResponseEntity.status(HttpStatus.CREATED).body(testSuite);
     }
 
+    @Tag(name = "Test Cases")
+    @Operation(summary = "Generate test cases from API specification, streaming progress as server-sent events")
+    @PostMapping(value = "/test-cases/generate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<GenerationEventDTO>> streamTestCases(@RequestBody ApiSpecDTO apiSpec) {
+        log.info("Received request to stream test case generation");
+        return testCaseGeneratorService.streamTestCases(apiSpec)
+                .map(event -> ServerSentEvent.builder(event)
+                        .event(event.getType())
+                        .build());
+    }
+
+    @Tag(name = "API Specifications")
+    @Operation(summary = "Upload an API specification file, to generate from by its ID")
+    @PostMapping(value = "/api-specs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiSpecInfoDTO> uploadApiSpec(@RequestParam("file") MultipartFile file) throws IOException {
+        log.info("Received upload of API specification {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+        try (InputStream content = file.getInputStream()) {
+            ApiSpecInfoDTO apiSpec = apiSpecStorage.store(content, file.getOriginalFilename());
+            return ResponseEntity.status(HttpStatus.CREATED).body(apiSpec);
+        }
+    }
+
+    @Tag(name = "API Specifications")
+    @Operation(summary = "Upload an API specification as the raw request body, to generate from by its ID")
+    @PostMapping(value = "/api-specs", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/yaml",
+            "application/x-yaml", "text/yaml", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiSpecInfoDTO> uploadApiSpecBody(
+            @RequestParam(required = false) String filename,
+            InputStream content) {
+        log.info("Received streamed upload of API specification {}", filename);
+        ApiSpecInfoDTO apiSpec = apiSpecStorage.store(content, filename);
+        return ResponseEntity.status(HttpStatus.CREATED).body(apiSpec);
+    }
+
+    @Tag(name = "API Specifications")
+    @Operation(summary = "Get uploaded API specification by ID")
+    @GetMapping("/api-specs/{specId}")
+    public ResponseEntity<ApiSpecInfoDTO> getApiSpec(@PathVariable String specId) {
+        log.info("Received request to get API specification: {}", specId);
+        return ResponseEntity.ok(apiSpecStorage.info(specId));
+    }
+
+    @Tag(name = "Generation Jobs")
+    @Operation(summary = "Submit a background job generating test cases from API specification")
+    @PostMapping("/test-cases/generate/jobs")
+    public ResponseEntity<GenerationJobDTO> submitGenerationJob(@RequestBody ApiSpecDTO apiSpec) {
+        log.info("Received request to submit a generation job");
+        GenerationJobDTO job = generationJobService.submit(apiSpec);
+        return ResponseEntity.accepted().body(job);
+    }
+
+    @Tag(name = "Generation Jobs")
+    @Operation(summary = "Get generation job status")
+    @GetMapping("/generation-jobs/{jobId}")
+    public ResponseEntity<GenerationJobDTO> getGenerationJob(@PathVariable String jobId) {
+        log.info("Received request to get generation job: {}", jobId);
+        return ResponseEntity.ok(generationJobService.getJob(jobId));
+    }
+
+    @Tag(name = "Generation Jobs")
+    @Operation(summary = "Get test suite generated by a completed job")
+    @GetMapping("/generation-jobs/{jobId}/result")
+    public ResponseEntity<TestSuiteDTO> getGenerationJobResult(@PathVariable String jobId) {
+        log.info("Received request to get result of generation job: {}", jobId);
+        return ResponseEntity.ok(generationJobService.getJobResult(jobId));
+    }
+
+    @Tag(name = "Generation Jobs")
+    @Operation(summary = "Get generation queue depth and recent jobs")
+    @GetMapping("/generation-jobs")
+    public ResponseEntity<GenerationQueueDTO> getGenerationQueue() {
+        log.info("Received request to get generation queue");
+        return ResponseEntity.ok(generationJobService.getQueue());
+    }
+
+    @Tag(name = "Test Cases")
+    @Operation(summary = "Clear cached test generation results")
+    @DeleteMapping("/generation-cache")
+    public ResponseEntity<Void> clearGenerationCache() {
+        log.info("Received request to clear the generation cache");
+        generationCache.clear();
+        return ResponseEntity.noContent().build();
+    }
+
     @Tag(name = "Test Cases")
     @Operation(summary = "Get test suite by ID")
     @GetMapping("/test-suites/{testSuiteId}")
-    public ResponseEntity<TestSuiteDTO> getTestSuite(@PathVariable String testSuiteId) {
+    public ResponseEntity<TestSuiteDTO> getTestSuite(
+            @PathVariable String testSuiteId,
+            @RequestParam(defaultValue = "false") boolean includeSpec) {
         log.info("Received request to get test suite: {}", testSuiteId);
-        TestSuiteDTO testSuite = testCaseGeneratorService.getTestSuite(testSuiteId);
+        TestSuiteDTO testSuite = testCaseGeneratorService.getTestSuite(testSuiteId, includeSpec);
+        return ResponseEntity.ok(testSuite);
+    }
+
+    @Tag(name = "Test Cases")
+    @Operation(summary = "Regenerate test suite from an updated API specification, only for changed operations")
+    @PostMapping("/test-suites/{testSuiteId}/regenerate")
+    public ResponseEntity<TestSuiteDTO> regenerateTestSuite(
+            @PathVariable String testSuiteId,
+            @RequestBody ApiSpecDTO apiSpec) {
+        log.info("Received request to regenerate test suite: {}", testSuiteId);
+        TestSuiteDTO testSuite = testCaseGeneratorService.regenerateTestSuite(testSuiteId, apiSpec);
         return ResponseEntity.ok(testSuite);
     }
 
@@ -100,6 +213,15 @@ public class ApiTestController {
         return ResponseEntity.ok(testRunResult);
     }
 
+    @Tag(name = "Test Runner")
+    @Operation(summary = "Get a test result with its request and response")
+    @GetMapping("/test-results/{testResultId}")
+    public ResponseEntity<TestResult> getTestResult(@PathVariable String testResultId) {
+        log.info("Received request to get test result: {}", testResultId);
+        TestResult testResult = testRunnerService.getTestResult(testResultId);
+        return ResponseEntity.ok(testResult);
+    }
+
     @Tag(name = "Reports")
     @Operation(summary = "Generate report for test run")
     @GetMapping("/reports/{testRunId}")
@@ -109,6 +231,24 @@ public class ApiTestController {
         return ResponseEntity.ok(report);
     }
 
+    @Tag(name = "Reports")
+    @Operation(summary = "Discard the stored report of a test run, so that it is rebuilt on the next request")
+    @DeleteMapping("/reports/{testRunId}/snapshot")
+    public ResponseEntity<Void> invalidateReport(@PathVariable String testRunId) {
+        log.info("Received request to invalidate report of test run: {}", testRunId);
+        reportService.invalidateReport(testRunId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Tag(name = "Reports")
+    @Operation(summary = "Compute the insights of a test run again, e.g. after they failed")
+    @PostMapping("/reports/{testRunId}/insights")
+    public ResponseEntity<Void> retryInsights(@PathVariable String testRunId) {
+        log.info("Received request to retry insights of test run: {}", testRunId);
+        reportService.retryInsights(testRunId);
+        return ResponseEntity.accepted().build();
+    }
+
     @Tag(name = "Reports")
     @Operation(summary = "Get list of reports")
     @GetMapping("/reports")
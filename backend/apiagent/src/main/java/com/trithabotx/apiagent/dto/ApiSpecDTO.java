@@ -11,5 +11,10 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class ApiSpecDTO {
     private String content;
+    private String specId; // specification uploaded to /api-specs, used instead of content
     private String format;
+    private String chunking; // "none", "operation", "tag" or "auto"
+    private String cache; // "use", "refresh" or "bypass"
+    private String callbackUrl; // notified when a generation job finishes
+    private String mode; // "llm", "baseline" or "hybrid"
 }
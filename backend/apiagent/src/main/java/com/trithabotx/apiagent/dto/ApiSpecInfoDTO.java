@@ -0,0 +1,21 @@
+package com.trithabotx.apiagent.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApiSpecInfoDTO {
+    private String id;
+    private String filename;
+    private String sha256;
+    private long size;
+    private Integer operations; // counted for uploads, null for specifications supplied inline
+    private LocalDateTime uploadedAt;
+}
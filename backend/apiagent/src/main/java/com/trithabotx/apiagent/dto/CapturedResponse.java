@@ -0,0 +1,24 @@
+package com.trithabotx.apiagent.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CapturedResponse {
+
+    private int statusCode;
+
+    @Builder.Default
+    private Map<String, String> headers = new HashMap<>();
+
+    private String body;
+    private long duration; // in milliseconds
+}
@@ -0,0 +1,19 @@
+package com.trithabotx.apiagent.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerationEventDTO {
+    private String type; // "started", "testCase", "error", "completed"
+    private String testSuiteId;
+    private int testCasesCount;
+    private TestCaseDTO testCase;
+    private TestSuiteDTO testSuite;
+    private String message;
+}
@@ -0,0 +1,27 @@
+package com.trithabotx.apiagent.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerationJobDTO {
+    private String id;
+    private String status;
+    private int fragmentsTotal;
+    private int fragmentsCompleted;
+    private String testSuiteId;
+    private int testCasesCount;
+    private String error;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private Long queueTimeMs;
+    private Long runTimeMs;
+}
@@ -0,0 +1,20 @@
+package com.trithabotx.apiagent.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerationQueueDTO {
+    private int queueDepth;
+    private int queueCapacity;
+    private int activeJobs;
+    private int maxThreads;
+    private List<GenerationJobDTO> recentJobs;
+}
@@ -1,5 +1,6 @@
 package com.trithabotx.apiagent.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -15,4 +16,7 @@ public class OllamaRequest {
     private String prompt;
     private boolean stream;
     private Map<String, Object> options;
+
+    @JsonProperty("keep_alive")
+    private String keepAlive;
 }
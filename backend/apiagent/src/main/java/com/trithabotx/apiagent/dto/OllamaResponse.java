@@ -1,5 +1,7 @@
 package com.trithabotx.apiagent.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,4 +13,27 @@ public class OllamaResponse {
     private String model;
     private String response;
     private String done;
+
+    // Timings are reported in nanoseconds on the final response of a generation
+    @JsonProperty("total_duration")
+    private Long totalDuration;
+
+    @JsonProperty("load_duration")
+    private Long loadDuration;
+
+    @JsonProperty("prompt_eval_count")
+    private Long promptEvalCount;
+
+    @JsonProperty("prompt_eval_duration")
+    private Long promptEvalDuration;
+
+    @JsonProperty("eval_count")
+    private Long evalCount;
+
+    @JsonProperty("eval_duration")
+    private Long evalDuration;
+
+    // Backend that served the response, set by the client
+    @JsonIgnore
+    private String backend;
 }
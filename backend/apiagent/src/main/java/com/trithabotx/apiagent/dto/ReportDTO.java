@@ -1,5 +1,7 @@
 package com.trithabotx.apiagent.dto;
 
+import com.trithabotx.apiagent.model.GenerationStats;
+import com.trithabotx.apiagent.model.InferenceStats;
 import com.trithabotx.apiagent.model.TestRunSummary;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -26,5 +28,8 @@ public class ReportDTO {
     private TestRunSummary summary;
     private Map<String, Object> statistics;
     private Map<String, String> insights;
+    private String insightsStatus; // "pending", "ready" or "failed"
+    private InferenceStats insightsInference;
+    private GenerationStats generationStats;
     private List<TestResultDTO> testResults;
 }
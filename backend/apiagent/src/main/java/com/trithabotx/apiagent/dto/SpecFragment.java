@@ -0,0 +1,19 @@
+package com.trithabotx.apiagent.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpecFragment {
+    private String name; // operation key or tag name
+    private List<String> operations; // "METHOD /path"
+    private JsonNode content; // self-contained specification with only these operations
+}
@@ -20,11 +20,14 @@ public class TestCaseDTO {
     private String method;
     private String endpoint;
     private Map<String, String> headers;
+    private List<String> excludeHeaders;
     private Object body;
     private int expectedStatus;
     private Object expectedResponse;
     private List<String> validation;
     private String category;
+    private String operation;
+    private List<String> specIssues;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
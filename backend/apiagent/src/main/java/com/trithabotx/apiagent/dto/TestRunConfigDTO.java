@@ -21,5 +21,14 @@ public class TestRunConfigDTO {
     private Map<String, String> headers = new HashMap<>();
 
     private Integer timeout; // in milliseconds
+    private String timeoutMode; // "fixed" or "adaptive"
+    private Integer runDeadline; // in milliseconds
     private Integer concurrency;
+    private String executionMode; // "live", "record" or "replay"
+    private Boolean coalesceRequests; // send identical GET/HEAD/OPTIONS requests once per run
+
+    private Boolean preflightCheck;
+    private Integer circuitBreakerThreshold; // consecutive connection failures, 0 disables
+    private Integer maxFailures;
+    private Double maxFailureRate; // in percent
 }
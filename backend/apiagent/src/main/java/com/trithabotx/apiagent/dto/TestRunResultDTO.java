@@ -1,6 +1,5 @@
 package com.trithabotx.apiagent.dto;
 
-import com.trithabotx.apiagent.model.TestResult;
 import com.trithabotx.apiagent.model.TestRunSummary;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -24,8 +23,9 @@ public class TestRunResultDTO {
     private String environment;
     private String baseUrl;
     private TestRunSummary summary;
+    private String terminationReason;
 
     @Builder.Default
-    private List<TestResult> results = new ArrayList<>();
+    private List<TestResultDTO> results = new ArrayList<>();
 
 }
@@ -1,5 +1,6 @@
 package com.trithabotx.apiagent.dto;
 
+import com.trithabotx.apiagent.model.GenerationStats;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,8 +16,10 @@ import java.util.List;
 public class TestSuiteDTO {
     private String id;
     private String name;
-    private String apiSpec;
+    private String apiSpecId;
+    private String apiSpec; // only set when requested
     private int testCasesCount;
     private List<TestCaseDTO> testCases;
+    private GenerationStats generationStats;
     private LocalDateTime createdAt;
 }
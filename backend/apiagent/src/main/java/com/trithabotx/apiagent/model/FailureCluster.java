@@ -0,0 +1,39 @@
+package com.trithabotx.apiagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Failed test results sharing one failure mode: the same response status,
+ * endpoint template and errors once numbers and IDs are stripped
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FailureCluster {
+
+    private String signature; // hex SHA-256 of the normalized failure
+
+    private Integer responseStatus;
+    private String method;
+    private String endpoint; // operation path template, or the request path with IDs replaced
+
+    @Builder.Default
+    private List<String> errors = new ArrayList<>(); // normalized
+
+    @Builder.Default
+    private int count = 0;
+
+    // Representative: the first failure of the cluster, as reported
+    private String testName;
+    private String category;
+
+    @Builder.Default
+    private List<String> representativeErrors = new ArrayList<>();
+}
@@ -0,0 +1,26 @@
+package com.trithabotx.apiagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "generation_cache")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerationCacheEntry {
+
+    @Id
+    private String key;  // hash of normalized spec, model, prompt version and sampling options
+
+    private String model;
+    private String promptVersion;
+    private String response;  // extracted JSON of the model response
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,37 @@
+package com.trithabotx.apiagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "generation_jobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerationJob {
+
+    @Id
+    private String id;
+
+    private String status;  // "queued", "running", "completed", "failed"
+    private String callbackUrl;
+
+    private int fragmentsTotal;
+    private int fragmentsCompleted;
+
+    private String testSuiteId;
+    private int testCasesCount;
+    private String error;
+
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private Long queueTimeMs;
+    private Long runTimeMs;
+}
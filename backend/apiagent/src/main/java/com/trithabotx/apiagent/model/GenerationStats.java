@@ -0,0 +1,50 @@
+package com.trithabotx.apiagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerationStats {
+
+    private int originalSpecSize;
+
+    private int compactSpecSize;
+
+    @Builder.Default
+    private int baselineTestCases = 0;
+
+    @Builder.Default
+    private int prompts = 0;
+
+    @Builder.Default
+    private int estimatedPromptTokens = 0;
+
+    @Builder.Default
+    private int duplicatesRemoved = 0;
+
+    @Builder.Default
+    private int repairedTestCases = 0;
+
+    @Builder.Default
+    private int invalidTestCases = 0;
+
+    @Builder.Default
+    private int correctedTestCases = 0;
+
+    // Set when a suite was regenerated from an updated specification
+    @Builder.Default
+    private int regeneratedOperations = 0;
+
+    @Builder.Default
+    private int keptTestCases = 0;
+
+    @Builder.Default
+    private int removedTestCases = 0;
+
+    private InferenceStats inference;
+}
@@ -0,0 +1,49 @@
+package com.trithabotx.apiagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InferenceStats {
+
+    @Builder.Default
+    private int calls = 0;
+
+    @Builder.Default
+    private Set<String> models = new LinkedHashSet<>();
+
+    @Builder.Default
+    private Set<String> backends = new LinkedHashSet<>();
+
+    @Builder.Default
+    private long promptTokens = 0;
+
+    @Builder.Default
+    private long evalTokens = 0;
+
+    @Builder.Default
+    private long totalDurationMs = 0;
+
+    @Builder.Default
+    private long loadDurationMs = 0;
+
+    @Builder.Default
+    private long promptEvalDurationMs = 0;
+
+    @Builder.Default
+    private long evalDurationMs = 0;
+
+    @Builder.Default
+    private double promptTokensPerSecond = 0.0;
+
+    @Builder.Default
+    private double evalTokensPerSecond = 0.0;
+}
@@ -0,0 +1,26 @@
+package com.trithabotx.apiagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Document(collection = "insight_cache")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InsightCacheEntry {
+
+    @Id
+    private String key;  // hash of the failure signatures of a run and the model
+
+    private String model;
+    private Map<String, String> insights;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,39 @@
+package com.trithabotx.apiagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@Document(collection = "recorded_exchanges")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordedExchange {
+
+    @Id
+    private String id;
+
+    private String testSuiteId;
+    private String fingerprint;  // request fingerprint, see RequestFingerprinter
+
+    private String requestMethod;
+    private String endpoint;
+
+    private int responseStatus;
+
+    @Builder.Default
+    private Map<String, String> responseHeaders = new HashMap<>();
+
+    private String responseBody;
+    private Long duration;  // in milliseconds
+
+    private LocalDateTime recordedAt;
+}
@@ -0,0 +1,25 @@
+package com.trithabotx.apiagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "report_snapshots")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportSnapshot {
+
+    @Id
+    private String testRunId;
+
+    private byte[] report;  // gzip compressed JSON of the ReportDTO
+    private int size;  // uncompressed size in bytes
+    private LocalDateTime createdAt;
+}
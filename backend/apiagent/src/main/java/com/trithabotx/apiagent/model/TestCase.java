@@ -32,6 +32,10 @@ public class TestCase {
     @Builder.Default
     private Map<String, String> headers = new HashMap<>();
 
+    // Run-level headers not sent with this test case, e.g. credentials for a case expecting 401
+    @Builder.Default
+    private List<String> excludeHeaders = new ArrayList<>();
+
     private Object body;
     private int expectedStatus;
     private Object expectedResponse;
@@ -41,6 +45,12 @@ public class TestCase {
 
     private String category;
 
+    // Specification operation the test case exercises, "METHOD /path", null if it could not be matched
+    private String operation;
+
+    // Problems found when checking the test case against the specification, set when it was kept flagged
+    private List<String> specIssues;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
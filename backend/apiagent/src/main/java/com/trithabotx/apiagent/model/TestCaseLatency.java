@@ -0,0 +1,23 @@
+package com.trithabotx.apiagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recent response durations of a test case, most recent first
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TestCaseLatency {
+
+    @Id
+    private String testCaseId;
+
+    private List<Long> durations = new ArrayList<>();
+}
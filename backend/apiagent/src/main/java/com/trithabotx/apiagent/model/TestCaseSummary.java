@@ -0,0 +1,13 @@
+package com.trithabotx.apiagent.model;
+
+/**
+ * Projection of a test case with the fields shown next to its results
+ */
+public interface TestCaseSummary {
+
+    String getId();
+
+    String getName();
+
+    String getCategory();
+}
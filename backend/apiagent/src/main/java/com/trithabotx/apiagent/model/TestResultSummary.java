@@ -0,0 +1,29 @@
+package com.trithabotx.apiagent.model;
+
+import java.util.List;
+
+/**
+ * Projection of a test result for listings and reports. Only the fields
+ * below are read from the database, request and response headers and
+ * bodies are left out.
+ */
+public interface TestResultSummary {
+
+    String getId();
+
+    String getTestCaseId();
+
+    String getStatus();
+
+    Long getDuration();
+
+    String getRequestUrl();
+
+    String getRequestMethod();
+
+    Integer getResponseStatus();
+
+    String getError();
+
+    List<String> getValidationErrors();
+}
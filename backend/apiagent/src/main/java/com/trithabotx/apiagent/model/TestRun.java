@@ -28,6 +28,7 @@ public class TestRun {
     private String status;  // "running", "completed", "failed", "aborted"
     private String environment;
     private String baseUrl;
+    private String terminationReason;
 
     @Builder.Default
     private Map<String, String> headers = new HashMap<>();
@@ -35,6 +36,12 @@ public class TestRun {
     @Builder.Default
     private TestRunSummary summary = new TestRunSummary();
 
+    // LLM insights, computed in the background once the run has finished
+    private Map<String, String> insights;
+    private String insightsStatus;  // null until computed, "ready" or "failed"
+    private String insightsSignature;  // hash of the model and failure modes the insights were built for, the insight cache key
+    private InferenceStats insightsInference;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
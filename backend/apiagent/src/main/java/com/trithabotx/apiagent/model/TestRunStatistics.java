@@ -0,0 +1,52 @@
+package com.trithabotx.apiagent.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Statistics of a test run aggregated by MongoDB, without loading its results
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TestRunStatistics {
+
+    private List<CategoryCounts> categories = new ArrayList<>();
+
+    // Empty when no result has a duration, a single element otherwise
+    private List<Durations> durations = new ArrayList<>();
+
+    private List<ErrorCount> errors = new ArrayList<>();  // most common first
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryCounts {
+        private String category;
+        private long total;
+        private long passed;
+        private long failed;
+        private long skipped;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Durations {
+        private double average;
+        private long min;
+        private long max;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ErrorCount {
+        private String error;
+        private long count;
+    }
+}
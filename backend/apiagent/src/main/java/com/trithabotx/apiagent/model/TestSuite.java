@@ -24,8 +24,14 @@ public class TestSuite {
 
     private String name;
     private String description;
+    private String apiSpecId;
+    private String apiSpecHash;
+
+    // Inline specification of suites created before specifications were stored in GridFS
     private String apiSpec;
 
+    private GenerationStats generationStats;
+
     @Builder.Default
     private List<String> testCaseIds = new ArrayList<>();
 
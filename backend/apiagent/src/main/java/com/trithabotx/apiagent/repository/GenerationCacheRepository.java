@@ -0,0 +1,9 @@
+package com.trithabotx.apiagent.repository;
+
+import com.trithabotx.apiagent.model.GenerationCacheEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GenerationCacheRepository extends MongoRepository<GenerationCacheEntry, String> {
+}
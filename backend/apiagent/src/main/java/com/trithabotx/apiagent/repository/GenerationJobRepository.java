@@ -0,0 +1,12 @@
+package com.trithabotx.apiagent.repository;
+
+import com.trithabotx.apiagent.model.GenerationJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GenerationJobRepository extends MongoRepository<GenerationJob, String> {
+    List<GenerationJob> findTop20ByOrderBySubmittedAtDesc();
+}
@@ -0,0 +1,9 @@
+package com.trithabotx.apiagent.repository;
+
+import com.trithabotx.apiagent.model.InsightCacheEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InsightCacheRepository extends MongoRepository<InsightCacheEntry, String> {
+}
@@ -0,0 +1,15 @@
+package com.trithabotx.apiagent.repository;
+
+import com.trithabotx.apiagent.model.RecordedExchange;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RecordedExchangeRepository extends MongoRepository<RecordedExchange, String> {
+    List<RecordedExchange> findByTestSuiteId(String testSuiteId);
+
+    void deleteByTestSuiteIdAndFingerprintIn(String testSuiteId, Collection<String> fingerprints);
+}
@@ -0,0 +1,9 @@
+package com.trithabotx.apiagent.repository;
+
+import com.trithabotx.apiagent.model.ReportSnapshot;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReportSnapshotRepository extends MongoRepository<ReportSnapshot, String> {
+}
@@ -1,13 +1,20 @@
 package com.trithabotx.apiagent.repository;
 
 import com.trithabotx.apiagent.model.TestCase;
+import com.trithabotx.apiagent.model.TestCaseSummary;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TestCaseRepository extends MongoRepository<TestCase, String> {
     List<TestCase> findByTestSuiteId(String testSuiteId);
 
+    /**
+     * Names and categories of the given test cases
+     */
+    List<TestCaseSummary> findSummariesByIdIn(Collection<String> ids);
+
 }
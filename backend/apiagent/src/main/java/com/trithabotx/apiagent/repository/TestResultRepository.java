@@ -1,13 +1,79 @@
 package com.trithabotx.apiagent.repository;
 
+import com.trithabotx.apiagent.model.TestCaseLatency;
 import com.trithabotx.apiagent.model.TestResult;
+import com.trithabotx.apiagent.model.TestResultSummary;
+import com.trithabotx.apiagent.model.TestRunStatistics;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TestResultRepository  extends MongoRepository<TestResult, String> {
     List<TestResult> findByTestRunId(String testRunId);
     List<TestResult> findByTestCaseId(String testCaseId);
+
+    /**
+     * Results of a test run without request and response headers and bodies
+     */
+    List<TestResultSummary> findSummariesByTestRunId(String testRunId);
+
+    /**
+     * Failed results of a test run without request and response headers and bodies
+     */
+    @Query(value = "{ 'testRunId': ?0, 'status': 'failed' }",
+            fields = "{ 'requestHeaders': 0, 'requestBody': 0, 'responseHeaders': 0, 'responseBody': 0 }")
+    List<TestResult> findFailuresByTestRunId(String testRunId);
+
+    /**
+     * Most recent durations of the given test cases, limited to requests that got a response
+     */
+    @Aggregation(pipeline = {
+            "{ '$match': { 'testCaseId': { '$in': ?0 }, 'responseStatus': { '$ne': null }, 'duration': { '$ne': null } } }",
+            "{ '$sort': { '_id': -1 } }",
+            "{ '$group': { '_id': '$testCaseId', 'durations': { '$push': '$duration' } } }",
+            "{ '$project': { 'durations': { '$slice': ['$durations', ?1] } } }"
+    })
+    List<TestCaseLatency> findRecentDurations(Collection<String> testCaseIds, int historySize);
+
+    /**
+     * Category counts, duration statistics and most common validation errors of a test run.
+     * Bodies and headers are projected away first, categories are looked up from the test cases.
+     */
+    @Aggregation(pipeline = {
+            "{ '$match': { 'testRunId': ?0 } }",
+            "{ '$project': { 'testCaseId': 1, 'status': 1, 'duration': 1, 'validationErrors': 1 } }",
+            "{ '$facet': {"
+                    + " 'categories': ["
+                    + "   { '$lookup': {"
+                    + "       'from': 'test_cases',"
+                    + "       'let': { 'testCaseId': { '$convert': { 'input': '$testCaseId', 'to': 'objectId', 'onError': '$testCaseId', 'onNull': null } } },"
+                    + "       'pipeline': [ { '$match': { '$expr': { '$eq': ['$_id', '$$testCaseId'] } } }, { '$project': { 'category': 1 } } ],"
+                    + "       'as': 'testCase' } },"
+                    + "   { '$unwind': '$testCase' },"
+                    + "   { '$group': {"
+                    + "       '_id': { '$ifNull': ['$testCase.category', 'uncategorized'] },"
+                    + "       'total': { '$sum': 1 },"
+                    + "       'passed': { '$sum': { '$cond': [{ '$eq': ['$status', 'passed'] }, 1, 0] } },"
+                    + "       'failed': { '$sum': { '$cond': [{ '$eq': ['$status', 'failed'] }, 1, 0] } },"
+                    + "       'skipped': { '$sum': { '$cond': [{ '$eq': ['$status', 'skipped'] }, 1, 0] } } } },"
+                    + "   { '$project': { '_id': 0, 'category': '$_id', 'total': 1, 'passed': 1, 'failed': 1, 'skipped': 1 } } ],"
+                    + " 'durations': ["
+                    + "   { '$match': { 'duration': { '$ne': null } } },"
+                    + "   { '$group': { '_id': null, 'average': { '$avg': '$duration' }, 'min': { '$min': '$duration' }, 'max': { '$max': '$duration' } } },"
+                    + "   { '$project': { '_id': 0 } } ],"
+                    + " 'errors': ["
+                    + "   { '$match': { 'status': 'failed' } },"
+                    + "   { '$unwind': '$validationErrors' },"
+                    + "   { '$group': { '_id': '$validationErrors', 'count': { '$sum': 1 } } },"
+                    + "   { '$sort': { 'count': -1, '_id': 1 } },"
+                    + "   { '$limit': ?1 },"
+                    + "   { '$project': { '_id': 0, 'error': '$_id', 'count': 1 } } ]"
+                    + " } }"
+    })
+    TestRunStatistics aggregateStatistics(String testRunId, int topErrors);
 }
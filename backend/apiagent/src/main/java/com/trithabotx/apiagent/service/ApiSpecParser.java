@@ -0,0 +1,151 @@
+package com.trithabotx.apiagent.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parses OpenAPI / Swagger specifications supplied as JSON or YAML
+ */
+@Component
+@Slf4j
+public class ApiSpecParser {
+
+    public static final Set<String> HTTP_METHODS =
+            Set.of("get", "put", "post", "delete", "options", "head", "patch", "trace");
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+
+    public ApiSpecParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Parse a specification
+     *
+     * @param content Specification as JSON or YAML text
+     * @return Parsed specification
+     */
+    public JsonNode parse(String content) {
+        if (content == null || content.isBlank()) {
+            throw new IllegalArgumentException("API specification is empty");
+        }
+        String trimmed = content.stripLeading();
+        try {
+            if (trimmed.startsWith("{") || trimmed.startsWith("[")) {
+                return objectMapper.readTree(trimmed);
+            }
+            return yamlMapper.readTree(trimmed);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid API specification: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parse a specification from a stream without reading it into a string first
+     *
+     * @param content Specification as JSON or YAML, closed by the caller
+     * @return Parsed specification
+     */
+    public JsonNode parse(InputStream content) {
+        try {
+            BufferedInputStream buffered = new BufferedInputStream(content);
+            int first = firstSignificantByte(buffered);
+            if (first < 0) {
+                throw new IllegalArgumentException("API specification is empty");
+            }
+            JsonNode spec = first == '{' || first == '['
+                    ? objectMapper.readTree(buffered)
+                    : yamlMapper.readTree(buffered);
+            if (spec == null || spec.isMissingNode()) {
+                throw new IllegalArgumentException("API specification is empty");
+            }
+            return spec;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid API specification: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Peek at the first byte that is not whitespace or a byte order mark, leaving the stream unread
+     */
+    private static int firstSignificantByte(BufferedInputStream content) throws IOException {
+        content.mark(8192);
+        try {
+            for (int i = 0; i < 8192; i++) {
+                int next = content.read();
+                if (next < 0 || !(Character.isWhitespace(next) || next == 0xEF || next == 0xBB || next == 0xBF)) {
+                    return next;
+                }
+            }
+            return ' ';
+        } finally {
+            content.reset();
+        }
+    }
+
+    /**
+     * Parse a specification, returning null instead of failing when it is not an OpenAPI document
+     *
+     * @param content Specification as JSON or YAML text
+     * @return Parsed specification with a paths object, or null
+     */
+    public JsonNode tryParse(String content) {
+        try {
+            JsonNode spec = parse(content);
+            return spec.path("paths").isObject() ? spec : null;
+        } catch (IllegalArgumentException e) {
+            log.debug("API specification could not be parsed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * List the operations of a specification in document order
+     *
+     * @param spec Parsed specification
+     * @return Operations as method (upper case) and path
+     */
+    public List<Operation> listOperations(JsonNode spec) {
+        List<Operation> operations = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> paths = spec.path("paths").fields();
+        while (paths.hasNext()) {
+            Map.Entry<String, JsonNode> path = paths.next();
+            Iterator<Map.Entry<String, JsonNode>> methods = path.getValue().fields();
+            while (methods.hasNext()) {
+                Map.Entry<String, JsonNode> method = methods.next();
+                if (HTTP_METHODS.contains(method.getKey().toLowerCase(Locale.ROOT))) {
+                    operations.add(new Operation(method.getKey().toUpperCase(Locale.ROOT), path.getKey(), method.getValue()));
+                }
+            }
+        }
+        return operations;
+    }
+
+    /**
+     * A single operation of a specification
+     *
+     * @param method     HTTP method in upper case
+     * @param path       Path template
+     * @param definition Operation object
+     */
+    public record Operation(String method, String path, JsonNode definition) {
+
+        public String key() {
+            return method + " " + path;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.trithabotx.apiagent.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.trithabotx.apiagent.dto.ApiSpecInfoDTO;
+import com.trithabotx.apiagent.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+
+/**
+ * Stores API specifications in GridFS, once per distinct content. Uploads
+ * are spooled to a temporary file while their SHA-256 is computed, so a
+ * large specification is never held in memory as a whole, and a content
+ * hash that is already stored returns the existing file.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ApiSpecStorage {
+
+    private static final String SHA256 = "sha256";
+    private static final String OPERATIONS = "operations";
+
+    private final GridFsTemplate gridFsTemplate;
+    private final ApiSpecParser apiSpecParser;
+
+    /**
+     * Store an uploaded specification, which must be an OpenAPI document
+     *
+     * @param content  Specification as JSON or YAML, closed by the caller
+     * @param filename Name of the uploaded file, may be null
+     * @return Stored specification
+     */
+    public ApiSpecInfoDTO store(InputStream content, String filename) {
+        Path spooled = null;
+        try {
+            spooled = Files.createTempFile("api-spec-", ".upload");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (DigestInputStream hashing = new DigestInputStream(content, digest)) {
+                Files.copy(hashing, spooled, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+
+            GridFSFile existing = findByHash(sha256);
+            if (existing != null) {
+                log.info("API specification {} is already stored as {}", sha256, existing.getObjectId());
+                return toInfo(existing);
+            }
+
+            JsonNode spec;
+            try (InputStream in = Files.newInputStream(spooled)) {
+                spec = apiSpecParser.parse(in);
+            }
+            if (!spec.path("paths").isObject()) {
+                throw new IllegalArgumentException("API specification has no paths object");
+            }
+            int operations = apiSpecParser.listOperations(spec).size();
+
+            try (InputStream in = Files.newInputStream(spooled)) {
+                return save(in, filename, sha256, operations);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store API specification", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        } finally {
+            if (spooled != null) {
+                try {
+                    Files.deleteIfExists(spooled);
+                } catch (IOException e) {
+                    log.warn("Failed to delete spooled API specification {}", spooled);
+                }
+            }
+        }
+    }
+
+    /**
+     * Store a specification supplied inline in a generation request. It is
+     * neither parsed nor required to be an OpenAPI document, since generation
+     * falls back to prompting with the text as supplied.
+     *
+     * @param content Specification text
+     * @return Stored specification
+     */
+    public ApiSpecInfoDTO store(String content) {
+        if (content == null || content.isBlank()) {
+            throw new IllegalArgumentException("API specification is empty");
+        }
+        String sha256 = RequestFingerprinter.sha256(content);
+        GridFSFile existing = findByHash(sha256);
+        if (existing != null) {
+            return toInfo(existing);
+        }
+        return save(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), null, sha256, null);
+    }
+
+    /**
+     * Get a stored specification's metadata
+     *
+     * @param id Specification ID
+     * @return Stored specification
+     */
+    public ApiSpecInfoDTO info(String id) {
+        return toInfo(find(id));
+    }
+
+    /**
+     * Parse a stored specification straight from GridFS
+     *
+     * @param id Specification ID
+     * @return Parsed specification
+     */
+    public JsonNode read(String id) {
+        try (InputStream in = gridFsTemplate.getResource(find(id)).getInputStream()) {
+            return apiSpecParser.parse(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read API specification " + id, e);
+        }
+    }
+
+    /**
+     * Load the text of a stored specification
+     *
+     * @param id Specification ID
+     * @return Specification as stored
+     */
+    public String load(String id) {
+        try (InputStream in = gridFsTemplate.getResource(find(id)).getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read API specification " + id, e);
+        }
+    }
+
+    private ApiSpecInfoDTO save(InputStream content, String filename, String sha256, Integer operations) {
+        Document metadata = new Document(SHA256, sha256);
+        if (operations != null) {
+            metadata.append(OPERATIONS, operations);
+        }
+        ObjectId id = gridFsTemplate.store(content, filename != null ? filename : sha256, metadata);
+        log.info("Stored API specification {} as {}", sha256, id);
+        return info(id.toHexString());
+    }
+
+    private GridFSFile find(String id) {
+        GridFSFile file = ObjectId.isValid(id)
+                ? gridFsTemplate.findOne(Query.query(Criteria.where("_id").is(new ObjectId(id))))
+                : null;
+        if (file == null) {
+            throw new ResourceNotFoundException("API specification not found: " + id);
+        }
+        return file;
+    }
+
+    private GridFSFile findByHash(String sha256) {
+        return gridFsTemplate.findOne(Query.query(Criteria.where("metadata." + SHA256).is(sha256)));
+    }
+
+    private ApiSpecInfoDTO toInfo(GridFSFile file) {
+        Document metadata = file.getMetadata() != null ? file.getMetadata() : new Document();
+        return ApiSpecInfoDTO.builder()
+                .id(file.getObjectId().toHexString())
+                .filename(file.getFilename())
+                .sha256(metadata.getString(SHA256))
+                .size(file.getLength())
+                .operations(metadata.getInteger(OPERATIONS))
+                .uploadedAt(LocalDateTime.ofInstant(file.getUploadDate().toInstant(), ZoneId.systemDefault()))
+                .build();
+    }
+}
@@ -0,0 +1,478 @@
+package com.trithabotx.apiagent.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trithabotx.apiagent.model.TestCase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates baseline test cases from an OpenAPI specification without an
+ * LLM. Each operation gets a positive case for its documented success
+ * status, negative cases for a missing body, missing required fields,
+ * an unknown resource and missing credentials where the specification
+ * documents those responses, and edge cases just outside and on the
+ * length and range limits of its body fields.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BaselineTestCaseGenerator {
+
+    public static final String MODE_LLM = "llm";
+    public static final String MODE_BASELINE = "baseline";
+    public static final String MODE_HYBRID = "hybrid";
+
+    private static final int MAX_DEPTH = 4;
+    private static final int MAX_FIELD_CASES = 3;
+    private static final int MAX_BOUNDARY_LENGTH = 10000;
+
+    private final ApiSpecParser apiSpecParser;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Generate baseline test cases for every operation of a specification
+     *
+     * @param spec Parsed specification, with its examples
+     * @return Test cases in operation order
+     */
+    public List<TestCase> generate(JsonNode spec) {
+        List<TestCase> testCases = new ArrayList<>();
+        boolean globalSecurity = hasSecurity(spec.path("security"));
+        SpecRefResolver resolver = new SpecRefResolver(spec);
+        List<String> credentialHeaders = credentialHeaders(resolver);
+
+        for (ApiSpecParser.Operation operation : apiSpecParser.listOperations(spec)) {
+            testCases.addAll(generate(resolver, operation, globalSecurity, credentialHeaders));
+        }
+        log.info("Generated {} baseline test cases", testCases.size());
+        return testCases;
+    }
+
+    private List<TestCase> generate(SpecRefResolver spec, ApiSpecParser.Operation operation, boolean globalSecurity,
+                                    List<String> credentialHeaders) {
+        List<TestCase> testCases = new ArrayList<>();
+        JsonNode definition = operation.definition();
+        JsonNode responses = definition.path("responses");
+        List<JsonNode> parameters = parameters(spec, operation);
+
+        int successStatus = successStatus(responses);
+        int invalidStatus = responses.has("422") && !responses.has("400") ? 422 : 400;
+        String endpoint = endpoint(spec, operation.path(), parameters, false);
+
+        JsonNode bodySchema = bodySchema(spec, definition, parameters);
+        boolean bodyRequired = bodyRequired(spec, definition, parameters);
+        Object body = bodySchema != null ? sample(spec, bodySchema, 0) : null;
+
+        testCases.add(testCase(operation, operation.key() + " returns " + successStatus, endpoint, body,
+                successStatus, "positive"));
+
+        if (bodySchema != null && bodyRequired) {
+            testCases.add(testCase(operation, operation.key() + " without a body is rejected", endpoint, null,
+                    invalidStatus, "negative"));
+        }
+
+        JsonNode resolvedBody = bodySchema != null ? spec.follow(bodySchema) : null;
+        if (resolvedBody != null && body instanceof Map<?, ?> sampleBody) {
+            int fieldCases = 0;
+            for (JsonNode required : resolvedBody.path("required")) {
+                if (fieldCases++ >= MAX_FIELD_CASES) {
+                    break;
+                }
+                Map<Object, Object> invalidBody = new LinkedHashMap<>(sampleBody);
+                invalidBody.remove(required.asText());
+                testCases.add(testCase(operation, operation.key() + " without required field " + required.asText()
+                        + " is rejected", endpoint, invalidBody, invalidStatus, "negative"));
+            }
+            testCases.addAll(boundaryCases(spec, operation, endpoint, sampleBody, resolvedBody,
+                    successStatus, invalidStatus));
+        }
+
+        if (responses.has("404") && parameters.stream().anyMatch(p -> "path".equals(p.path("in").asText()))) {
+            testCases.add(testCase(operation, operation.key() + " for an unknown resource returns 404",
+                    endpoint(spec, operation.path(), parameters, true), body, 404, "negative"));
+        }
+
+        boolean secured = definition.has("security") ? hasSecurity(definition.path("security")) : globalSecurity;
+        if (secured && responses.has("401")) {
+            TestCase unauthorized = testCase(operation, operation.key() + " without credentials returns 401",
+                    endpoint, body, 401, "security");
+            unauthorized.setExcludeHeaders(new ArrayList<>(credentialHeaders));
+            testCases.add(unauthorized);
+        }
+
+        return testCases;
+    }
+
+    /**
+     * Cases on and just outside the length and range limits of top level body fields
+     */
+    private List<TestCase> boundaryCases(SpecRefResolver spec, ApiSpecParser.Operation operation, String endpoint,
+                                         Map<?, ?> sampleBody, JsonNode bodySchema, int successStatus, int invalidStatus) {
+        List<TestCase> testCases = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> properties = bodySchema.path("properties").fields();
+        while (properties.hasNext() && testCases.size() < MAX_FIELD_CASES * 2) {
+            Map.Entry<String, JsonNode> property = properties.next();
+            JsonNode schema = spec.follow(property.getValue());
+            String field = property.getKey();
+
+            if (schema.has("maxLength") && schema.get("maxLength").asInt() < MAX_BOUNDARY_LENGTH) {
+                int maxLength = schema.get("maxLength").asInt();
+                testCases.add(withField(operation, endpoint, sampleBody, field, "x".repeat(maxLength),
+                        field + " at its maximum length", successStatus, "edge"));
+                testCases.add(withField(operation, endpoint, sampleBody, field, "x".repeat(maxLength + 1),
+                        field + " over its maximum length", invalidStatus, "edge"));
+            }
+            if (schema.has("minLength") && schema.get("minLength").asInt() > 0) {
+                int minLength = schema.get("minLength").asInt();
+                testCases.add(withField(operation, endpoint, sampleBody, field, "x".repeat(minLength - 1),
+                        field + " under its minimum length", invalidStatus, "edge"));
+            }
+            boolean integer = "integer".equals(schema.path("type").asText());
+            Limit minimum = limit(schema, "minimum", "exclusiveMinimum");
+            Limit maximum = limit(schema, "maximum", "exclusiveMaximum");
+            double step = step(integer, minimum, maximum);
+            if (maximum != null && maximum.exclusive()) {
+                testCases.add(withField(operation, endpoint, sampleBody, field,
+                        number(insideMaximum(maximum, step, integer), integer),
+                        field + " just under its exclusive maximum", successStatus, "edge"));
+                testCases.add(withField(operation, endpoint, sampleBody, field,
+                        number(integer ? Math.ceil(maximum.value()) : maximum.value(), integer),
+                        field + " at its exclusive maximum", invalidStatus, "edge"));
+            } else if (maximum != null) {
+                testCases.add(withField(operation, endpoint, sampleBody, field,
+                        number(insideMaximum(maximum, step, integer), integer),
+                        field + " at its maximum", successStatus, "edge"));
+                testCases.add(withField(operation, endpoint, sampleBody, field,
+                        number(integer ? Math.floor(maximum.value()) + 1 : maximum.value() + 1, integer),
+                        field + " over its maximum", invalidStatus, "edge"));
+            }
+            if (minimum != null && minimum.exclusive()) {
+                testCases.add(withField(operation, endpoint, sampleBody, field,
+                        number(integer ? Math.floor(minimum.value()) : minimum.value(), integer),
+                        field + " at its exclusive minimum", invalidStatus, "edge"));
+            } else if (minimum != null) {
+                testCases.add(withField(operation, endpoint, sampleBody, field,
+                        number(integer ? Math.ceil(minimum.value()) - 1 : minimum.value() - 1, integer),
+                        field + " under its minimum", invalidStatus, "edge"));
+            }
+        }
+        return testCases;
+    }
+
+    private TestCase withField(ApiSpecParser.Operation operation, String endpoint, Map<?, ?> sampleBody,
+                               String field, Object value, String description, int status, String category) {
+        Map<Object, Object> body = new LinkedHashMap<>(sampleBody);
+        body.put(field, value);
+        return testCase(operation, operation.key() + " with " + description + " returns " + status,
+                endpoint, body, status, category);
+    }
+
+    private TestCase testCase(ApiSpecParser.Operation operation, String name, String endpoint, Object body,
+                              int expectedStatus, String category) {
+        Map<String, String> headers = new HashMap<>();
+        if (body != null) {
+            headers.put("Content-Type", "application/json");
+        }
+        List<String> validation = new ArrayList<>();
+        validation.add("Response status is " + expectedStatus);
+        return TestCase.builder()
+                .name(name)
+                .method(operation.method())
+                .endpoint(endpoint)
+                .headers(headers)
+                .body(body)
+                .expectedStatus(expectedStatus)
+                .validation(validation)
+                .category(category)
+                .operation(operation.key())
+                .build();
+    }
+
+    /**
+     * First documented 2xx status, 200 if the operation only documents a default response
+     */
+    private int successStatus(JsonNode responses) {
+        Iterator<String> codes = responses.fieldNames();
+        while (codes.hasNext()) {
+            String code = codes.next();
+            if (code.length() == 3 && code.startsWith("2") && Character.isDigit(code.charAt(2))) {
+                return Integer.parseInt(code);
+            }
+        }
+        return 200;
+    }
+
+    /**
+     * Path and operation level parameters, resolved, with operation parameters taking precedence
+     */
+    private List<JsonNode> parameters(SpecRefResolver spec, ApiSpecParser.Operation operation) {
+        Map<String, JsonNode> parameters = new LinkedHashMap<>();
+        for (JsonNode parameter : spec.root().path("paths").path(operation.path()).path("parameters")) {
+            JsonNode resolved = spec.follow(parameter);
+            parameters.put(resolved.path("in").asText() + ":" + resolved.path("name").asText(), resolved);
+        }
+        for (JsonNode parameter : operation.definition().path("parameters")) {
+            JsonNode resolved = spec.follow(parameter);
+            parameters.put(resolved.path("in").asText() + ":" + resolved.path("name").asText(), resolved);
+        }
+        return new ArrayList<>(parameters.values());
+    }
+
+    /**
+     * Endpoint with sample path parameters and required query parameters filled in
+     *
+     * @param unknown Use values that should not match any existing resource for path parameters
+     */
+    private String endpoint(SpecRefResolver spec, String path, List<JsonNode> parameters, boolean unknown) {
+        String endpoint = path;
+        List<String> query = new ArrayList<>();
+        for (JsonNode parameter : parameters) {
+            String name = parameter.path("name").asText();
+            JsonNode schema = parameter.has("schema") ? parameter.get("schema") : parameter;
+            if ("path".equals(parameter.path("in").asText())) {
+                String type = spec.follow(schema).path("type").asText("string");
+                Object value = unknown
+                        ? ("integer".equals(type) || "number".equals(type) ? 999999999 : "nonexistent-0")
+                        : sample(spec, schema, 0);
+                endpoint = endpoint.replace("{" + name + "}", encode(String.valueOf(value)));
+            } else if ("query".equals(parameter.path("in").asText()) && parameter.path("required").asBoolean(false)) {
+                query.add(encode(name) + "=" + encode(String.valueOf(sample(spec, schema, 0))));
+            }
+        }
+        return query.isEmpty() ? endpoint : endpoint + "?" + String.join("&", query);
+    }
+
+    private JsonNode bodySchema(SpecRefResolver spec, JsonNode definition, List<JsonNode> parameters) {
+        JsonNode content = spec.follow(definition.path("requestBody")).path("content");
+        if (content.has("application/json")) {
+            return content.get("application/json").path("schema");
+        }
+        for (JsonNode parameter : parameters) {
+            if ("body".equals(parameter.path("in").asText())) {
+                return parameter.path("schema");
+            }
+        }
+        return null;
+    }
+
+    private boolean bodyRequired(SpecRefResolver spec, JsonNode definition, List<JsonNode> parameters) {
+        if (spec.follow(definition.path("requestBody")).path("required").asBoolean(false)) {
+            return true;
+        }
+        return parameters.stream()
+                .anyMatch(p -> "body".equals(p.path("in").asText()) && p.path("required").asBoolean(false));
+    }
+
+    /**
+     * Build a sample value satisfying a schema: its example or default if it
+     * has one, otherwise a value of its type within its documented limits
+     */
+    private Object sample(SpecRefResolver spec, JsonNode schema, int depth) {
+        return sample(spec, schema, depth, 0);
+    }
+
+    /**
+     * @param merges Number of allOf schemas entered at this depth. Their parts
+     *               describe the same object, so they are sampled at its depth.
+     */
+    private Object sample(SpecRefResolver spec, JsonNode schema, int depth, int merges) {
+        if (depth > MAX_DEPTH * 2 || merges > MAX_DEPTH) {
+            return null;
+        }
+        schema = spec.follow(schema);
+        if (schema.has("example")) {
+            return objectMapper.convertValue(schema.get("example"), Object.class);
+        }
+        if (schema.has("default")) {
+            return objectMapper.convertValue(schema.get("default"), Object.class);
+        }
+        if (schema.path("enum").isArray() && !schema.path("enum").isEmpty()) {
+            return objectMapper.convertValue(schema.path("enum").get(0), Object.class);
+        }
+        if (schema.path("allOf").isArray()) {
+            Map<String, Object> merged = new LinkedHashMap<>();
+            for (JsonNode part : schema.path("allOf")) {
+                if (sample(spec, part, depth, merges + 1) instanceof Map<?, ?> partSample) {
+                    partSample.forEach((key, value) -> merged.put(String.valueOf(key), value));
+                }
+            }
+            return merged;
+        }
+        for (String alternatives : List.of("oneOf", "anyOf")) {
+            if (schema.path(alternatives).isArray() && !schema.path(alternatives).isEmpty()) {
+                return sample(spec, schema.path(alternatives).get(0), depth + 1);
+            }
+        }
+
+        String type = schema.path("type").asText(schema.has("properties") ? "object" : "string");
+        switch (type) {
+            case "integer":
+                return sampleNumber(schema, true);
+            case "number":
+                return sampleNumber(schema, false);
+            case "boolean":
+                return true;
+            case "array": {
+                List<Object> items = new ArrayList<>();
+                if (depth < MAX_DEPTH) {
+                    int count = Math.max(1, schema.path("minItems").asInt(1));
+                    for (int i = 0; i < count; i++) {
+                        items.add(sample(spec, schema.path("items"), depth + 1));
+                    }
+                }
+                return items;
+            }
+            case "object": {
+                // Nested objects only get their required properties, which also stops recursive schemas
+                Map<String, Object> object = new LinkedHashMap<>();
+                List<String> required = new ArrayList<>();
+                schema.path("required").forEach(name -> required.add(name.asText()));
+                if (depth < MAX_DEPTH) {
+                    schema.path("properties").fields().forEachRemaining(property -> {
+                        if (depth == 0 || required.contains(property.getKey())) {
+                            object.put(property.getKey(), sample(spec, property.getValue(), depth + 1));
+                        }
+                    });
+                }
+                return object;
+            }
+            default:
+                return sampleString(schema);
+        }
+    }
+
+    /**
+     * Number within the limits of a schema: its minimum, or a value just
+     * inside an exclusive limit
+     */
+    private Number sampleNumber(JsonNode schema, boolean integer) {
+        Limit minimum = limit(schema, "minimum", "exclusiveMinimum");
+        Limit maximum = limit(schema, "maximum", "exclusiveMaximum");
+        double step = step(integer, minimum, maximum);
+        double value = integer ? 1 : 1.5;
+        if (minimum != null) {
+            value = insideMinimum(minimum, step, integer);
+        } else if (maximum != null && (value > maximum.value() || maximum.exclusive() && value >= maximum.value())) {
+            value = insideMaximum(maximum, step, integer);
+        }
+        return number(value, integer);
+    }
+
+    /**
+     * Lower or upper limit of a numeric schema
+     *
+     * @param value     Limit value
+     * @param exclusive Whether the value itself is outside the range
+     */
+    private record Limit(double value, boolean exclusive) {
+    }
+
+    /**
+     * Read a limit in either form: OpenAPI 3.0 sets a boolean exclusive
+     * keyword next to the limit, OpenAPI 3.1 gives the exclusive limit itself
+     */
+    private static Limit limit(JsonNode schema, String inclusiveKeyword, String exclusiveKeyword) {
+        JsonNode exclusive = schema.path(exclusiveKeyword);
+        if (exclusive.isNumber()) {
+            return new Limit(exclusive.asDouble(), true);
+        }
+        if (schema.path(inclusiveKeyword).isNumber()) {
+            return new Limit(schema.get(inclusiveKeyword).asDouble(), exclusive.asBoolean(false));
+        }
+        return null;
+    }
+
+    /**
+     * Distance a number is moved inside an exclusive limit: 1, or half the range if it is narrower
+     */
+    private static double step(boolean integer, Limit minimum, Limit maximum) {
+        if (integer || minimum == null || maximum == null) {
+            return 1;
+        }
+        return Math.min(1, (maximum.value() - minimum.value()) / 2);
+    }
+
+    private static double insideMinimum(Limit minimum, double step, boolean integer) {
+        if (integer) {
+            return minimum.exclusive() ? Math.floor(minimum.value()) + 1 : Math.ceil(minimum.value());
+        }
+        return minimum.exclusive() ? minimum.value() + step : minimum.value();
+    }
+
+    private static double insideMaximum(Limit maximum, double step, boolean integer) {
+        if (integer) {
+            return maximum.exclusive() ? Math.ceil(maximum.value()) - 1 : Math.floor(maximum.value());
+        }
+        return maximum.exclusive() ? maximum.value() - step : maximum.value();
+    }
+
+    private static Number number(double value, boolean integer) {
+        return integer ? (Number) (long) value : (Number) value;
+    }
+
+    private String sampleString(JsonNode schema) {
+        String value = switch (schema.path("format").asText("")) {
+            case "date-time" -> "2024-01-01T00:00:00Z";
+            case "date" -> "2024-01-01";
+            case "email" -> "user@example.com";
+            case "uuid" -> "123e4567-e89b-12d3-a456-426614174000";
+            case "uri", "url" -> "https://example.com";
+            case "ipv4" -> "192.0.2.1";
+            default -> "string";
+        };
+        int minLength = schema.path("minLength").asInt(0);
+        int maxLength = schema.path("maxLength").asInt(Integer.MAX_VALUE);
+        if (value.length() < minLength) {
+            value = value + "x".repeat(minLength - value.length());
+        }
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    /**
+     * Headers that carry credentials: the standard ones and the API key
+     * headers declared by the security schemes of the specification
+     */
+    private List<String> credentialHeaders(SpecRefResolver spec) {
+        List<String> headers = new ArrayList<>(List.of("Authorization", "Proxy-Authorization", "Cookie"));
+        List<JsonNode> schemes = new ArrayList<>();
+        spec.root().path("components").path("securitySchemes").elements().forEachRemaining(schemes::add);
+        spec.root().path("securityDefinitions").elements().forEachRemaining(schemes::add);
+        for (JsonNode scheme : schemes) {
+            JsonNode resolved = spec.follow(scheme);
+            String name = resolved.path("name").asText("");
+            if ("apiKey".equals(resolved.path("type").asText()) && "header".equals(resolved.path("in").asText())
+                    && !name.isEmpty() && headers.stream().noneMatch(name::equalsIgnoreCase)) {
+                headers.add(name);
+            }
+        }
+        return headers;
+    }
+
+    private boolean hasSecurity(JsonNode security) {
+        if (!security.isArray()) {
+            return false;
+        }
+        for (JsonNode requirement : security) {
+            // An empty requirement makes authentication optional
+            if (requirement.isEmpty()) {
+                return false;
+            }
+        }
+        return !security.isEmpty();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
@@ -0,0 +1,124 @@
+package com.trithabotx.apiagent.service;
+
+import com.trithabotx.apiagent.model.FailureCluster;
+import com.trithabotx.apiagent.model.TestCase;
+import com.trithabotx.apiagent.model.TestResult;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Groups failed test results by a normalized failure signature in a single
+ * pass, so that a run with hundreds of failures of a few kinds is described
+ * by a few clusters. The signature is the response status, the endpoint
+ * template and the error texts with numbers, UUIDs and other IDs replaced
+ * by placeholders.
+ */
+@Component
+public class FailureClusterer {
+
+    private static final Pattern UUID = Pattern.compile(
+            "\\b[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\b");
+    private static final Pattern HEX_ID = Pattern.compile("\\b(?=[0-9a-fA-F]*\\d)[0-9a-fA-F]{16,}\\b");
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?");
+    private static final Pattern TEMPLATE_VARIABLE = Pattern.compile("\\{[^}/]*}");
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+            "\\d+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|(?=[0-9a-fA-F]*\\d)[0-9a-fA-F]{16,}");
+
+    /**
+     * Cluster the failed results of a run
+     *
+     * @param results     Test results, only failed ones are clustered
+     * @param testCaseMap Test cases by ID
+     * @return Clusters, largest first
+     */
+    public List<FailureCluster> cluster(List<TestResult> results, Map<String, TestCase> testCaseMap) {
+        Map<String, FailureCluster> clusters = new LinkedHashMap<>();
+        for (TestResult result : results) {
+            if (!"failed".equals(result.getStatus())) {
+                continue;
+            }
+            TestCase testCase = testCaseMap.get(result.getTestCaseId());
+            String method = result.getRequestMethod() != null
+                    ? result.getRequestMethod().toUpperCase(Locale.ROOT)
+                    : testCase != null ? testCase.getMethod() : null;
+            String endpoint = endpointTemplate(result, testCase);
+
+            List<String> rawErrors = new ArrayList<>();
+            if (result.getError() != null && !result.getError().isBlank()) {
+                rawErrors.add(result.getError());
+            }
+            if (result.getValidationErrors() != null) {
+                rawErrors.addAll(result.getValidationErrors());
+            }
+            List<String> errors = rawErrors.stream().map(FailureClusterer::normalize).distinct().sorted().toList();
+
+            String signature = RequestFingerprinter.sha256(String.join("\n",
+                    String.valueOf(result.getResponseStatus()), String.valueOf(method), endpoint, String.join("\n", errors)));
+            FailureCluster cluster = clusters.computeIfAbsent(signature, key -> FailureCluster.builder()
+                    .signature(key)
+                    .responseStatus(result.getResponseStatus())
+                    .method(method)
+                    .endpoint(endpoint)
+                    .errors(errors)
+                    .testName(testCase != null ? testCase.getName() : "Unknown Test")
+                    .category(testCase != null ? testCase.getCategory() : "unknown")
+                    .representativeErrors(rawErrors)
+                    .build());
+            cluster.setCount(cluster.getCount() + 1);
+        }
+
+        List<FailureCluster> sorted = new ArrayList<>(clusters.values());
+        sorted.sort(Comparator.comparingInt(FailureCluster::getCount).reversed());
+        return sorted;
+    }
+
+    /**
+     * Replace numbers, UUIDs and long hexadecimal IDs in an error text
+     *
+     * @param error Error text
+     * @return Normalized error text
+     */
+    static String normalize(String error) {
+        String normalized = UUID.matcher(error).replaceAll("{id}");
+        normalized = HEX_ID.matcher(normalized).replaceAll("{id}");
+        normalized = NUMBER.matcher(normalized).replaceAll("#");
+        return normalized.trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Path template the result exercised: the operation of its test case if known,
+     * otherwise the request path with ID segments replaced. Template variables
+     * are all named {id}, so both sources give the same template.
+     */
+    private static String endpointTemplate(TestResult result, TestCase testCase) {
+        if (testCase != null && testCase.getOperation() != null) {
+            int space = testCase.getOperation().indexOf(' ');
+            return TEMPLATE_VARIABLE.matcher(testCase.getOperation().substring(space + 1)).replaceAll("{id}");
+        }
+        String path = result.getRequestUrl() != null ? result.getRequestUrl()
+                : testCase != null ? testCase.getEndpoint() : "";
+        try {
+            String parsed = URI.create(path).getPath();
+            path = parsed != null ? parsed : path;
+        } catch (IllegalArgumentException e) {
+            int query = path.indexOf('?');
+            path = query >= 0 ? path.substring(0, query) : path;
+        }
+
+        String[] segments = path.split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            if (ID_SEGMENT.matcher(segments[i]).matches()) {
+                segments[i] = "{id}";
+            }
+        }
+        return String.join("/", segments);
+    }
+}
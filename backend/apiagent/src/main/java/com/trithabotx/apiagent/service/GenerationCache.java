@@ -0,0 +1,174 @@
+package com.trithabotx.apiagent.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trithabotx.apiagent.config.AppProperties;
+import com.trithabotx.apiagent.model.GenerationCacheEntry;
+import com.trithabotx.apiagent.repository.GenerationCacheRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Two tier cache of LLM test generation results, keyed by the content of
+ * the specification and everything else that influences the output: model,
+ * prompt template version and sampling options. The first tier is an
+ * in-memory LRU map, the second the generation_cache collection.
+ */
+@Service
+@Slf4j
+public class GenerationCache {
+
+    /**
+     * Read from and write to the cache
+     */
+    public static final String MODE_USE = "use";
+
+    /**
+     * Skip the lookup but store the new result
+     */
+    public static final String MODE_REFRESH = "refresh";
+
+    /**
+     * Neither read nor write the cache
+     */
+    public static final String MODE_BYPASS = "bypass";
+
+    private final GenerationCacheRepository generationCacheRepository;
+    private final ApiSpecParser apiSpecParser;
+    private final RequestFingerprinter requestFingerprinter;
+    private final OllamaService ollamaService;
+    private final AppProperties appProperties;
+    private final ObjectMapper objectMapper;
+    private final Map<String, String> memoryCache;
+
+    public GenerationCache(GenerationCacheRepository generationCacheRepository, ApiSpecParser apiSpecParser,
+                           RequestFingerprinter requestFingerprinter, OllamaService ollamaService,
+                           AppProperties appProperties, ObjectMapper objectMapper) {
+        this.generationCacheRepository = generationCacheRepository;
+        this.apiSpecParser = apiSpecParser;
+        this.requestFingerprinter = requestFingerprinter;
+        this.ollamaService = ollamaService;
+        this.appProperties = appProperties;
+        this.objectMapper = objectMapper;
+
+        int capacity = appProperties.getGeneration().getCache().getMemorySize();
+        this.memoryCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    /**
+     * Compute the cache key of a specification for the current model and prompt
+     *
+     * @param apiSpec        Specification or specification fragment
+     * @param beyondBaseline Whether the prompt asks only for cases beyond the rule based baseline
+     * @return Cache key
+     */
+    public String keyFor(String apiSpec, boolean beyondBaseline) {
+        return RequestFingerprinter.sha256(String.join("\n",
+                normalize(apiSpec),
+                beyondBaseline ? "beyond-baseline" : "full",
+                ollamaService.getModelRoute(),
+                OllamaService.PROMPT_TEMPLATE_VERSION,
+                requestFingerprinter.canonicalBody(ollamaService.samplingOptions())));
+    }
+
+    /**
+     * Look up a cached generation result
+     *
+     * @param key  Cache key
+     * @param mode Cache mode of the request
+     * @return Cached JSON response, or null
+     */
+    public String get(String key, String mode) {
+        String cacheMode = normalizeMode(mode);
+        if (!appProperties.getGeneration().getCache().isEnabled() || !MODE_USE.equals(cacheMode)) {
+            return null;
+        }
+
+        String response = memoryCache.get(key);
+        if (response == null && appProperties.getGeneration().getCache().isPersistent()) {
+            response = generationCacheRepository.findById(key)
+                    .map(GenerationCacheEntry::getResponse)
+                    .orElse(null);
+            if (response != null) {
+                memoryCache.put(key, response);
+            }
+        }
+
+        if (response != null) {
+            log.info("Generation cache hit: {}", key);
+        }
+        return response;
+    }
+
+    /**
+     * Store a generation result
+     *
+     * @param key      Cache key
+     * @param response Extracted JSON response of the model
+     * @param mode     Cache mode of the request
+     */
+    public void put(String key, String response, String mode) {
+        String cacheMode = normalizeMode(mode);
+        if (!appProperties.getGeneration().getCache().isEnabled() || MODE_BYPASS.equals(cacheMode)) {
+            return;
+        }
+
+        memoryCache.put(key, response);
+        if (appProperties.getGeneration().getCache().isPersistent()) {
+            generationCacheRepository.save(GenerationCacheEntry.builder()
+                    .key(key)
+                    .model(ollamaService.getModelRoute())
+                    .promptVersion(OllamaService.PROMPT_TEMPLATE_VERSION)
+                    .response(response)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    /**
+     * Remove every cached generation result
+     */
+    public void clear() {
+        memoryCache.clear();
+        generationCacheRepository.deleteAll();
+        log.info("Generation cache cleared");
+    }
+
+    /**
+     * Canonical form of a specification: parsed and re-serialized with sorted keys,
+     * so formatting and key order do not change the key
+     */
+    private String normalize(String apiSpec) {
+        JsonNode spec = apiSpecParser.tryParse(apiSpec);
+        if (spec == null) {
+            return apiSpec.strip().replace("\r\n", "\n");
+        }
+        return requestFingerprinter.canonicalBody(objectMapper.convertValue(spec, Object.class));
+    }
+
+    /**
+     * Normalize the cache mode of a request
+     *
+     * @param mode Requested cache mode, null for the default
+     * @return "use", "refresh" or "bypass"
+     * @throws IllegalArgumentException if the mode is none of these
+     */
+    public static String normalizeMode(String mode) {
+        String normalized = mode != null ? mode.toLowerCase() : MODE_USE;
+        if (!List.of(MODE_USE, MODE_REFRESH, MODE_BYPASS).contains(normalized)) {
+            throw new IllegalArgumentException("Unknown cache mode: " + mode);
+        }
+        return normalized;
+    }
+}
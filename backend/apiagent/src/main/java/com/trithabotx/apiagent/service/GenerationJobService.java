@@ -0,0 +1,290 @@
+package com.trithabotx.apiagent.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.trithabotx.apiagent.config.AppProperties;
+import com.trithabotx.apiagent.dto.ApiSpecDTO;
+import com.trithabotx.apiagent.dto.GenerationJobDTO;
+import com.trithabotx.apiagent.dto.GenerationQueueDTO;
+import com.trithabotx.apiagent.dto.TestSuiteDTO;
+import com.trithabotx.apiagent.exception.ResourceConflictException;
+import com.trithabotx.apiagent.exception.ResourceNotFoundException;
+import com.trithabotx.apiagent.model.GenerationJob;
+import com.trithabotx.apiagent.repository.GenerationJobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GenerationJobService {
+
+    private final TestCaseGeneratorService testCaseGeneratorService;
+    private final GenerationJobRepository generationJobRepository;
+    private final WebClient.Builder webClientBuilder;
+    private final AppProperties appProperties;
+    private final MongoTemplate mongoTemplate;
+
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private ThreadPoolTaskExecutor generationJobExecutor;
+
+    /**
+     * Create the executor for generation jobs. The queue is bounded so that
+     * a burst of submissions is rejected instead of piling up.
+     */
+    @PostConstruct
+    void init() {
+        AppProperties.Jobs jobs = appProperties.getGeneration().getJobs();
+
+        generationJobExecutor = new ThreadPoolTaskExecutor();
+        generationJobExecutor.setCorePoolSize(jobs.getThreads());
+        generationJobExecutor.setMaxPoolSize(jobs.getThreads());
+        generationJobExecutor.setQueueCapacity(jobs.getQueueCapacity());
+        generationJobExecutor.setThreadNamePrefix("generation-job-");
+        generationJobExecutor.initialize();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        generationJobExecutor.shutdown();
+    }
+
+    /**
+     * Fail the jobs that were queued or running when the application last
+     * stopped. Their requests are not stored, so they cannot be resumed, and
+     * without this clients would poll them forever. Jobs submitted since this
+     * process started are left alone.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        generationJobExecutor.execute(() -> {
+            try {
+                UpdateResult result = mongoTemplate.updateMulti(
+                        Query.query(Criteria.where("status").in("queued", "running")
+                                .and("submittedAt").lt(startedAt)),
+                        new Update()
+                                .set("status", "failed")
+                                .set("error", "Interrupted by a server restart")
+                                .set("completedAt", LocalDateTime.now()),
+                        GenerationJob.class);
+                if (result.getModifiedCount() > 0) {
+                    log.warn("Marked {} generation jobs interrupted by a restart as failed", result.getModifiedCount());
+                }
+            } catch (Exception e) {
+                log.warn("Could not recover interrupted generation jobs: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Submit a test generation job
+     *
+     * @param request API specification and generation options
+     * @return Queued job
+     */
+    public GenerationJobDTO submit(ApiSpecDTO request) {
+        checkCallbackUrl(request.getCallbackUrl());
+
+        GenerationJob job = generationJobRepository.save(GenerationJob.builder()
+                .status("queued")
+                .callbackUrl(request.getCallbackUrl())
+                .submittedAt(LocalDateTime.now())
+                .build());
+        final String jobId = job.getId();
+
+        try {
+            generationJobExecutor.execute(() -> runJob(jobId, request));
+        } catch (TaskRejectedException e) {
+            job.setStatus("failed");
+            job.setError("Generation queue is full");
+            job.setCompletedAt(LocalDateTime.now());
+            generationJobRepository.save(job);
+            throw e;
+        }
+
+        log.info("Queued generation job: {}", jobId);
+        return mapToGenerationJobDTO(job);
+    }
+
+    /**
+     * Get a generation job by ID
+     *
+     * @param jobId Job ID
+     * @return Job status and timings
+     */
+    public GenerationJobDTO getJob(String jobId) {
+        return mapToGenerationJobDTO(findJob(jobId));
+    }
+
+    /**
+     * Get the test suite produced by a completed job
+     *
+     * @param jobId Job ID
+     * @return Generated test suite
+     */
+    public TestSuiteDTO getJobResult(String jobId) {
+        GenerationJob job = findJob(jobId);
+        if (!"completed".equals(job.getStatus())) {
+            throw new ResourceConflictException("Generation job " + jobId + " is " + job.getStatus());
+        }
+        return testCaseGeneratorService.getTestSuite(job.getTestSuiteId());
+    }
+
+    /**
+     * Get the state of the generation queue and the most recent jobs
+     *
+     * @return Queue statistics
+     */
+    public GenerationQueueDTO getQueue() {
+        return GenerationQueueDTO.builder()
+                .queueDepth(generationJobExecutor.getQueueSize())
+                .queueCapacity(generationJobExecutor.getQueueCapacity())
+                .activeJobs(generationJobExecutor.getActiveCount())
+                .maxThreads(generationJobExecutor.getMaxPoolSize())
+                .recentJobs(generationJobRepository.findTop20ByOrderBySubmittedAtDesc().stream()
+                        .map(this::mapToGenerationJobDTO)
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    /**
+     * Execute a job on the generation executor
+     *
+     * @param jobId   Job ID
+     * @param request API specification and generation options
+     */
+    private void runJob(String jobId, ApiSpecDTO request) {
+        GenerationJob job = findJob(jobId);
+        job.setStatus("running");
+        job.setStartedAt(LocalDateTime.now());
+        job.setQueueTimeMs(Duration.between(job.getSubmittedAt(), job.getStartedAt()).toMillis());
+        generationJobRepository.save(job);
+
+        try {
+            TestSuiteDTO testSuite = testCaseGeneratorService.generateTestCases(request, (completed, total) -> {
+                job.setFragmentsCompleted(completed);
+                job.setFragmentsTotal(total);
+                generationJobRepository.save(job);
+            });
+
+            job.setStatus("completed");
+            job.setTestSuiteId(testSuite.getId());
+            job.setTestCasesCount(testSuite.getTestCasesCount());
+        } catch (Exception e) {
+            log.error("Generation job {} failed: {}", jobId, e.getMessage());
+            job.setStatus("failed");
+            job.setError(e.getMessage());
+        }
+
+        job.setCompletedAt(LocalDateTime.now());
+        job.setRunTimeMs(Duration.between(job.getStartedAt(), job.getCompletedAt()).toMillis());
+        generationJobRepository.save(job);
+        log.info("Generation job {} {} in {} ms after {} ms in queue",
+                jobId, job.getStatus(), job.getRunTimeMs(), job.getQueueTimeMs());
+
+        notifyCallback(job);
+    }
+
+    /**
+     * Post the finished job to its callback URL, if any
+     *
+     * @param job Finished job
+     */
+    private void notifyCallback(GenerationJob job) {
+        if (job.getCallbackUrl() == null || job.getCallbackUrl().isBlank()) {
+            return;
+        }
+        try {
+            // Checked again in case the allowed hosts changed since the job was submitted
+            checkCallbackUrl(job.getCallbackUrl());
+        } catch (IllegalArgumentException e) {
+            log.warn("Not notifying callback of generation job {}: {}", job.getId(), e.getMessage());
+            return;
+        }
+
+        webClientBuilder.build()
+                .post()
+                .uri(job.getCallbackUrl())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(mapToGenerationJobDTO(job))
+                .retrieve()
+                .toBodilessEntity()
+                .subscribe(
+                        response -> log.debug("Notified callback of generation job {}", job.getId()),
+                        e -> log.warn("Callback for generation job {} failed: {}", job.getId(), e.getMessage()));
+    }
+
+    /**
+     * Check that a callback URL uses HTTP and points to an allowed host, so
+     * that jobs cannot make the server post to arbitrary addresses
+     *
+     * @param callbackUrl Callback URL, may be null
+     */
+    private void checkCallbackUrl(String callbackUrl) {
+        if (callbackUrl == null || callbackUrl.isBlank()) {
+            return;
+        }
+
+        URI uri;
+        try {
+            uri = URI.create(callbackUrl);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid callback URL: " + callbackUrl);
+        }
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : "";
+        if (!scheme.equals("http") && !scheme.equals("https")) {
+            throw new IllegalArgumentException("Callback URL must use http or https: " + callbackUrl);
+        }
+        String host = uri.getHost();
+        if (host == null || appProperties.getGeneration().getJobs().getCallbackHosts().stream()
+                .noneMatch(allowed -> allowed.trim().equalsIgnoreCase(host))) {
+            throw new IllegalArgumentException("Callback host is not allowed: " + host);
+        }
+    }
+
+    private GenerationJob findJob(String jobId) {
+        return generationJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Generation job not found: " + jobId));
+    }
+
+    /**
+     * Map GenerationJob entity to DTO
+     *
+     * @param job Generation job entity
+     * @return Generation job DTO
+     */
+    private GenerationJobDTO mapToGenerationJobDTO(GenerationJob job) {
+        return GenerationJobDTO.builder()
+                .id(job.getId())
+                .status(job.getStatus())
+                .fragmentsTotal(job.getFragmentsTotal())
+                .fragmentsCompleted(job.getFragmentsCompleted())
+                .testSuiteId(job.getTestSuiteId())
+                .testCasesCount(job.getTestCasesCount())
+                .error(job.getError())
+                .submittedAt(job.getSubmittedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .queueTimeMs(job.getQueueTimeMs())
+                .runTimeMs(job.getRunTimeMs())
+                .build();
+    }
+}
@@ -0,0 +1,275 @@
+package com.trithabotx.apiagent.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trithabotx.apiagent.config.AppProperties;
+import com.trithabotx.apiagent.model.FailureCluster;
+import com.trithabotx.apiagent.model.InferenceStats;
+import com.trithabotx.apiagent.model.InsightCacheEntry;
+import com.trithabotx.apiagent.model.TestCase;
+import com.trithabotx.apiagent.model.TestResult;
+import com.trithabotx.apiagent.model.TestRun;
+import com.trithabotx.apiagent.repository.InsightCacheRepository;
+import com.trithabotx.apiagent.repository.TestCaseRepository;
+import com.trithabotx.apiagent.repository.TestResultRepository;
+import com.trithabotx.apiagent.repository.TestRunRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Computes the LLM insights of a test run in the background once the run
+ * has finished, and stores them with the run. Insights are cached by the
+ * failure signatures of the run, so a run failing in the same ways as an
+ * earlier one reuses its insights without calling the model.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InsightService {
+
+    public static final String STATUS_PENDING = "pending";
+    public static final String STATUS_READY = "ready";
+    public static final String STATUS_FAILED = "failed";
+
+    private static final int MAX_INSIGHT_CLUSTERS = 20;
+    private static final int MAX_CLUSTER_ERRORS = 5;
+    private static final int MAX_ERROR_LENGTH = 300;
+
+    private final TestRunRepository testRunRepository;
+    private final TestResultRepository testResultRepository;
+    private final TestCaseRepository testCaseRepository;
+    private final InsightCacheRepository insightCacheRepository;
+    private final FailureClusterer failureClusterer;
+    private final OllamaService ollamaService;
+    private final AppProperties appProperties;
+    private final ObjectMapper objectMapper;
+
+    private final Set<String> scheduledRuns = ConcurrentHashMap.newKeySet();
+    private ThreadPoolTaskExecutor insightExecutor;
+
+    /**
+     * Create the executor for insights. Few threads keep a burst of finished
+     * runs from saturating the inference backends.
+     */
+    @PostConstruct
+    void init() {
+        AppProperties.Insights insights = appProperties.getInsights();
+
+        insightExecutor = new ThreadPoolTaskExecutor();
+        insightExecutor.setCorePoolSize(insights.getThreads());
+        insightExecutor.setMaxPoolSize(insights.getThreads());
+        insightExecutor.setQueueCapacity(insights.getQueueCapacity());
+        insightExecutor.setThreadNamePrefix("insights-");
+        insightExecutor.initialize();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        insightExecutor.shutdown();
+    }
+
+    /**
+     * Queue the insights of a finished test run, unless they are already queued
+     *
+     * @param testRunId  Test run ID
+     * @param onComplete Called once the insights are stored
+     */
+    public void schedule(String testRunId, Runnable onComplete) {
+        if (!scheduledRuns.add(testRunId)) {
+            return;
+        }
+        try {
+            insightExecutor.execute(() -> {
+                try {
+                    try {
+                        computeInsights(testRunId);
+                    } catch (Exception e) {
+                        // Settle the insights anyway, so that the pending report snapshot is replaced
+                        log.error("Error computing insights of test run {}", testRunId, e);
+                        markFailed(testRunId, e);
+                    }
+                    onComplete.run();
+                } catch (Exception e) {
+                    log.error("Error completing insights of test run {}", testRunId, e);
+                } finally {
+                    scheduledRuns.remove(testRunId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            scheduledRuns.remove(testRunId);
+            log.warn("Insight queue is full, insights of test run {} are computed when its report is requested", testRunId);
+        }
+    }
+
+    /**
+     * Compute and store the insights of a test run
+     *
+     * @param testRunId Test run ID
+     */
+    void computeInsights(String testRunId) {
+        TestRun testRun = testRunRepository.findById(testRunId).orElse(null);
+        if (testRun == null) {
+            return;
+        }
+
+        // Only failures are clustered, and clustering does not look at headers or bodies
+        List<TestResult> results = testResultRepository.findFailuresByTestRunId(testRunId);
+        List<String> testCaseIds = results.stream()
+                .map(TestResult::getTestCaseId)
+                .collect(Collectors.toList());
+        Map<String, TestCase> testCaseMap = testCaseRepository.findAllById(testCaseIds).stream()
+                .collect(Collectors.toMap(TestCase::getId, tc -> tc));
+
+        List<FailureCluster> clusters = failureClusterer.cluster(results, testCaseMap);
+        String signature = signature(clusters);
+        InferenceStats inference = new InferenceStats();
+        String status = STATUS_READY;
+
+        Map<String, String> insights = insightCacheRepository.findById(signature)
+                .map(InsightCacheEntry::getInsights)
+                .orElse(null);
+        if (insights != null) {
+            log.info("Reusing cached insights for test run {}", testRunId);
+        } else {
+            try {
+                insights = generateInsights(testRun, clusters, inference);
+                insightCacheRepository.save(InsightCacheEntry.builder()
+                        .key(signature)
+                        .model(ollamaService.getModel())
+                        .insights(insights)
+                        .createdAt(LocalDateTime.now())
+                        .build());
+            } catch (Exception e) {
+                log.error("Error generating insights for test run {}", testRunId, e);
+                insights = failedInsights(e);
+                status = STATUS_FAILED;
+            }
+        }
+
+        testRun.setInsights(insights);
+        testRun.setInsightsStatus(status);
+        testRun.setInsightsSignature(signature);
+        testRun.setInsightsInference(inference);
+        testRunRepository.save(testRun);
+        log.info("Stored insights for test run {}: {}", testRunId, status);
+    }
+
+    /**
+     * Store failed insights for a test run whose insights could not be computed at all
+     *
+     * @param testRunId Test run ID
+     * @param error     Cause of the failure
+     */
+    private void markFailed(String testRunId, Exception error) {
+        testRunRepository.findById(testRunId).ifPresent(testRun -> {
+            testRun.setInsights(failedInsights(error));
+            testRun.setInsightsStatus(STATUS_FAILED);
+            testRunRepository.save(testRun);
+        });
+    }
+
+    private static Map<String, String> failedInsights(Exception error) {
+        Map<String, String> insights = new HashMap<>();
+        insights.put("summary", "Failed to generate insights");
+        insights.put("details", "An error occurred while analyzing test results: " + error.getMessage());
+        return insights;
+    }
+
+    /**
+     * Cache key of a run's insights: the model and the set of distinct failure
+     * modes. The prompt also carries per-run details (summary counts, cluster
+     * sizes, sample errors and tests), which are left out on purpose so that
+     * runs failing in the same ways share one analysis.
+     */
+    private String signature(List<FailureCluster> clusters) {
+        String failureModes = clusters.stream()
+                .map(FailureCluster::getSignature)
+                .sorted()
+                .collect(Collectors.joining("\n"));
+        return RequestFingerprinter.sha256(ollamaService.getModel() + "\n" + failureModes);
+    }
+
+    /**
+     * Generate insights using Ollama LLM
+     *
+     * @param testRun   Test run
+     * @param clusters  Failure clusters of the run, largest first
+     * @param inference Inference totals, updated by the insights call
+     * @return Map of insights
+     */
+    private Map<String, String> generateInsights(TestRun testRun, List<FailureCluster> clusters, InferenceStats inference)
+            throws JsonProcessingException {
+        // Prepare data for Ollama
+        Map<String, Object> insightData = new HashMap<>();
+        insightData.put("testRunSummary", testRun.getSummary());
+
+        // One representative per failure mode keeps the prompt size independent of the number of failures
+        List<Map<String, Object>> failureClusters = clusters.stream()
+                .limit(MAX_INSIGHT_CLUSTERS)
+                .map(cluster -> {
+                    Map<String, Object> failure = new LinkedHashMap<>();
+                    failure.put("failedTests", cluster.getCount());
+                    failure.put("responseStatus", cluster.getResponseStatus());
+                    failure.put("endpoint", cluster.getMethod() + " " + cluster.getEndpoint());
+                    failure.put("exampleTest", cluster.getTestName());
+                    failure.put("category", cluster.getCategory());
+                    failure.put("errors", cluster.getRepresentativeErrors().stream()
+                            .limit(MAX_CLUSTER_ERRORS)
+                            .map(error -> error.length() > MAX_ERROR_LENGTH
+                                    ? error.substring(0, MAX_ERROR_LENGTH) + "..."
+                                    : error)
+                            .toList());
+                    return failure;
+                })
+                .collect(Collectors.toList());
+
+        int failedTests = clusters.stream().mapToInt(FailureCluster::getCount).sum();
+        insightData.put("failedTests", failedTests);
+        insightData.put("failureModes", clusters.size());
+        insightData.put("failureClusters", failureClusters);
+        if (clusters.size() > MAX_INSIGHT_CLUSTERS) {
+            insightData.put("failedTestsInOmittedClusters", clusters.stream()
+                    .skip(MAX_INSIGHT_CLUSTERS)
+                    .mapToInt(FailureCluster::getCount)
+                    .sum());
+        }
+        log.info("Clustered {} failed tests into {} failure modes for insights", failedTests, clusters.size());
+
+        // Generate insights using Ollama
+        String insightText = ollamaService.suggestTestImprovements(objectMapper.writeValueAsString(insightData), inference);
+
+        // Parse insights (simple approach)
+        Map<String, String> insights = new HashMap<>();
+
+        String[] paragraphs = insightText.split("\n\n");
+        if (paragraphs.length > 0) {
+            insights.put("summary", paragraphs[0].trim());
+
+            if (paragraphs.length > 1) {
+                insights.put("details", String.join("\n\n", Arrays.copyOfRange(paragraphs, 1, paragraphs.length)));
+            } else {
+                insights.put("details", "");
+            }
+        } else {
+            insights.put("summary", "No insights available");
+            insights.put("details", "");
+        }
+
+        return insights;
+    }
+}
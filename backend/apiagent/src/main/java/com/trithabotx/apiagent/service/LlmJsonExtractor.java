@@ -0,0 +1,135 @@
+package com.trithabotx.apiagent.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts the JSON document from an LLM completion. Reasoning blocks and
+ * markdown fences are skipped, and the first complete top-level object is
+ * located with a streaming parser, so braces in surrounding prose do not
+ * matter. If the document was cut off, every test case that was completed
+ * before the cut is recovered.
+ */
+@Component
+@Slf4j
+public class LlmJsonExtractor {
+
+    private static final Pattern THINK_BLOCK = Pattern.compile("(?s)<think>.*?</think>");
+    private static final Pattern FENCED_BLOCK = Pattern.compile("(?s)```[\\w-]*\\s*\\n(.*?)(?:```|$)");
+
+    private final ObjectMapper objectMapper;
+
+    public LlmJsonExtractor(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Extract the JSON document of a completion
+     *
+     * @param response Raw response from LLM
+     * @return JSON text of the first complete object, a test suite recovered
+     * from truncated output, or the response unchanged if it holds no JSON object
+     */
+    public String extract(String response) {
+        if (response == null) {
+            return null;
+        }
+        String text = strip(response);
+
+        for (int start = text.indexOf('{'); start >= 0; start = text.indexOf('{', start + 1)) {
+            try (JsonParser parser = objectMapper.getFactory().createParser(text.substring(start))) {
+                JsonNode node = objectMapper.readTree(parser);
+                if (node != null && node.isObject()) {
+                    return objectMapper.writeValueAsString(node);
+                }
+            } catch (JsonEOFException e) {
+                // The document starting here runs to the end of the output: it was truncated
+                String recovered = recoverTestSuite(text.substring(start));
+                if (recovered != null) {
+                    return recovered;
+                }
+                break;
+            } catch (IOException e) {
+                // Not JSON, e.g. a path template in prose: try the next brace
+            }
+        }
+
+        log.warn("Could not find a JSON object in LLM response");
+        return response;
+    }
+
+    /**
+     * Remove reasoning blocks and unwrap markdown fences
+     */
+    private String strip(String response) {
+        String text = THINK_BLOCK.matcher(response).replaceAll("");
+        Matcher fenced = FENCED_BLOCK.matcher(text);
+        if (fenced.find() && fenced.group(1).contains("{")) {
+            return fenced.group(1);
+        }
+        return text;
+    }
+
+    /**
+     * Rebuild a test suite from the elements of a truncated {@code testCases}
+     * array. Elements are read one at a time, so every element that was
+     * completed before the cut is kept.
+     *
+     * @param text Truncated JSON document
+     * @return Test suite JSON with the complete test cases, or null if none were found
+     */
+    private String recoverTestSuite(String text) {
+        String suiteName = null;
+        ArrayNode testCases = objectMapper.createArrayNode();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(text)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.FIELD_NAME) {
+                    continue;
+                }
+                String field = parser.currentName();
+                String parent = parser.getParsingContext().getParent() != null
+                        ? parser.getParsingContext().getParent().getCurrentName()
+                        : null;
+
+                if ("name".equals(field) && "testSuite".equals(parent)) {
+                    if (parser.nextToken() == JsonToken.VALUE_STRING) {
+                        suiteName = parser.getText();
+                    }
+                } else if ("testCases".equals(field) && parser.nextToken() == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        testCases.add((JsonNode) objectMapper.readTree(parser));
+                    }
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // Expected at the cut: keep what was read before it
+        }
+
+        if (testCases.isEmpty()) {
+            return null;
+        }
+
+        log.warn("LLM response was truncated, recovered {} complete test cases", testCases.size());
+        ObjectNode testSuite = objectMapper.createObjectNode();
+        ObjectNode suite = testSuite.putObject("testSuite");
+        if (suiteName != null) {
+            suite.put("name", suiteName);
+        }
+        suite.set("testCases", testCases);
+        return testSuite.toString();
+    }
+}
@@ -0,0 +1,111 @@
+package com.trithabotx.apiagent.service;
+
+import lombok.Getter;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One Ollama server of the backend pool, with its own concurrency cap,
+ * outstanding request count, health state and circuit breaker
+ */
+public class OllamaBackend {
+
+    @Getter
+    private final String url;
+    @Getter
+    private final WebClient webClient;
+    private final List<String> models;
+    private final Semaphore permits;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    @Getter
+    private final OllamaCircuitBreaker circuitBreaker;
+    private volatile boolean healthy = true;
+
+    /**
+     * @param url                   Base URL of the Ollama API
+     * @param webClient             Client bound to the base URL
+     * @param models                Models served by this backend, empty for any model
+     * @param maxConcurrentRequests Concurrent requests allowed on this backend
+     * @param circuitBreaker        Circuit breaker ejecting the backend after consecutive failures
+     */
+    public OllamaBackend(String url, WebClient webClient, List<String> models,
+                         int maxConcurrentRequests, OllamaCircuitBreaker circuitBreaker) {
+        this.url = url;
+        this.webClient = webClient;
+        this.models = models != null ? models : List.of();
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public boolean supports(String model) {
+        return models.isEmpty() || models.contains(model);
+    }
+
+    /**
+     * Whether the backend may currently receive requests: healthy and not ejected by its breaker
+     */
+    public boolean isAvailable() {
+        return healthy && !circuitBreaker.isOpen();
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * Take a concurrency slot without waiting
+     */
+    public boolean tryAcquire() {
+        if (permits.tryAcquire()) {
+            outstanding.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Take a concurrency slot for the single trial request of an ejected
+     * backend, once its breaker's open period has passed. The trial is
+     * given back if no slot is free.
+     *
+     * @return Whether the backend was ejected and got the trial request
+     */
+    public boolean tryAcquireTrial() {
+        if (!healthy || !circuitBreaker.isOpen() || !circuitBreaker.allowRequest()) {
+            return false;
+        }
+        if (tryAcquire()) {
+            return true;
+        }
+        circuitBreaker.releaseTrial();
+        return false;
+    }
+
+    /**
+     * Take a concurrency slot, waiting at most the given time
+     */
+    public boolean tryAcquire(long timeoutMs) throws InterruptedException {
+        if (permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+            outstanding.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    public void release() {
+        outstanding.decrementAndGet();
+        permits.release();
+    }
+
+    public void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+}
@@ -0,0 +1,79 @@
+package com.trithabotx.apiagent.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Minimal circuit breaker for calls to Ollama. After a number of
+ * consecutive failures the breaker opens and calls fail immediately; once
+ * the open period has passed a single trial call is let through, which
+ * closes the breaker again on success.
+ */
+@Slf4j
+public class OllamaCircuitBreaker {
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationMs;
+
+    private int consecutiveFailures;
+    private long openedAt = -1;
+    private boolean trialInProgress;
+
+    /**
+     * @param name             Name used in log messages
+     * @param failureThreshold Consecutive failures that open the breaker (0 disables it)
+     * @param openDurationMs   How long the breaker stays open before a trial call
+     */
+    public OllamaCircuitBreaker(String name, int failureThreshold, long openDurationMs) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+    }
+
+    /**
+     * Check whether a call may be made now
+     *
+     * @return False while the breaker is open
+     */
+    public synchronized boolean allowRequest() {
+        if (openedAt < 0) {
+            return true;
+        }
+        if (!trialInProgress && System.currentTimeMillis() - openedAt >= openDurationMs) {
+            trialInProgress = true;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized void recordSuccess() {
+        if (openedAt >= 0) {
+            log.info("Circuit breaker {} closed", name);
+        }
+        consecutiveFailures = 0;
+        openedAt = -1;
+        trialInProgress = false;
+    }
+
+    /**
+     * Give back a trial call that was granted but not completed, so that the next call can be the trial
+     */
+    public synchronized void releaseTrial() {
+        trialInProgress = false;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (trialInProgress || (failureThreshold > 0 && openedAt < 0 && consecutiveFailures >= failureThreshold)) {
+            if (openedAt < 0) {
+                log.warn("Circuit breaker {} opened after {} consecutive failures", name, consecutiveFailures);
+            }
+            openedAt = System.currentTimeMillis();
+            trialInProgress = false;
+        }
+    }
+
+    public synchronized boolean isOpen() {
+        return openedAt >= 0;
+    }
+}
@@ -0,0 +1,282 @@
+package com.trithabotx.apiagent.service;
+
+import com.trithabotx.apiagent.config.AppProperties;
+import com.trithabotx.apiagent.dto.OllamaRequest;
+import com.trithabotx.apiagent.dto.OllamaResponse;
+import com.trithabotx.apiagent.exception.OllamaException;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Shared HTTP client for a pool of Ollama backends. Connections are pooled
+ * and reused across calls. Each request is routed to the available backend
+ * serving the model with the fewest outstanding requests. Backends are
+ * ejected by their circuit breaker after consecutive failures and by the
+ * periodic health check while they do not respond.
+ */
+@Component
+@Slf4j
+public class OllamaClient {
+
+    private final AppProperties appProperties;
+    private final List<OllamaBackend> backends = new ArrayList<>();
+
+    public OllamaClient(WebClient.Builder webClientBuilder, AppProperties appProperties) {
+        this.appProperties = appProperties;
+        AppProperties.Ollama ollama = appProperties.getOllama();
+
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("ollama")
+                .maxConnections(ollama.getMaxConnections())
+                .maxIdleTime(Duration.ofMillis(ollama.getMaxIdleTime()))
+                .pendingAcquireTimeout(Duration.ofMillis(ollama.getConnectTimeout()))
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, ollama.getConnectTimeout())
+                .responseTimeout(Duration.ofMillis(ollama.getReadTimeout()));
+
+        // Without an explicit pool the single app.ollama.url is the only backend
+        List<AppProperties.Backend> configured = ollama.getBackends();
+        if (configured.isEmpty()) {
+            AppProperties.Backend backend = new AppProperties.Backend();
+            backend.setUrl(ollama.getUrl());
+            configured = List.of(backend);
+        }
+
+        for (AppProperties.Backend backend : configured) {
+            WebClient webClient = webClientBuilder.clone()
+                    .baseUrl(backend.getUrl())
+                    .clientConnector(new ReactorClientHttpConnector(httpClient))
+                    .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                    .build();
+            int maxConcurrentRequests = backend.getMaxConcurrentRequests() != null
+                    ? backend.getMaxConcurrentRequests()
+                    : ollama.getMaxConcurrentRequests();
+
+            backends.add(new OllamaBackend(backend.getUrl(), webClient, backend.getModels(), maxConcurrentRequests,
+                    new OllamaCircuitBreaker(backend.getUrl(),
+                            ollama.getCircuitBreaker().getFailureThreshold(),
+                            ollama.getCircuitBreaker().getOpenDuration())));
+        }
+        log.info("Configured {} Ollama backends", backends.size());
+    }
+
+    /**
+     * Send a generate request and wait for the complete response
+     *
+     * @param request Generate request with stream disabled
+     * @param timeout Maximum time to wait for the response
+     * @return Ollama response
+     */
+    public OllamaResponse generate(OllamaRequest request, Duration timeout) {
+        OllamaBackend backend = null;
+
+        try {
+            backend = acquireBackend(request.getModel());
+            OllamaResponse response = backend.getWebClient().post()
+                    .uri("/generate")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(request)
+                    .retrieve()
+                    .bodyToMono(OllamaResponse.class)
+                    .timeout(timeout)
+                    .block();
+            backend.getCircuitBreaker().recordSuccess();
+            if (response != null) {
+                response.setBackend(backend.getUrl());
+            }
+            return response;
+        } catch (RuntimeException e) {
+            if (backend != null) {
+                backend.getCircuitBreaker().recordFailure();
+            }
+            throw e;
+        } finally {
+            if (backend != null) {
+                backend.release();
+            }
+        }
+    }
+
+    /**
+     * Send a generate request and stream the response chunks. The call
+     * counts as a success once the final chunk arrives, since callers
+     * usually cancel the stream right after it.
+     *
+     * @param request Generate request with stream enabled
+     * @return Response chunks as they arrive
+     */
+    public Flux<OllamaResponse> stream(OllamaRequest request) {
+        return Flux.defer(() -> {
+            OllamaBackend backend = acquireBackend(request.getModel());
+            AtomicBoolean finished = new AtomicBoolean();
+
+            return backend.getWebClient().post()
+                    .uri("/generate")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .bodyValue(request)
+                    .retrieve()
+                    .bodyToFlux(OllamaResponse.class)
+                    .doOnNext(response -> {
+                        response.setBackend(backend.getUrl());
+                        if (Boolean.parseBoolean(response.getDone()) && finished.compareAndSet(false, true)) {
+                            backend.getCircuitBreaker().recordSuccess();
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        if (finished.compareAndSet(false, true)) {
+                            backend.getCircuitBreaker().recordSuccess();
+                        }
+                    })
+                    .doOnError(e -> backend.getCircuitBreaker().recordFailure())
+                    .doFinally(signal -> {
+                        // Cancelled before the model finished, e.g. the client went away: no verdict on the backend
+                        if (signal == SignalType.CANCEL && !finished.get()) {
+                            backend.getCircuitBreaker().releaseTrial();
+                        }
+                        backend.release();
+                    });
+        });
+    }
+
+    /**
+     * Load the configured model, and the escalation model if one is set, on
+     * every backend serving it as soon as the application is up, so that
+     * neither the first request nor the first escalation pays for loading it
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        AppProperties.Ollama ollama = appProperties.getOllama();
+        if (!ollama.isWarmUp()) {
+            return;
+        }
+
+        List<String> models = new ArrayList<>(List.of(ollama.getModel()));
+        String escalationModel = ollama.getRouting().getEscalationModel();
+        if (escalationModel != null && !escalationModel.isBlank() && !models.contains(escalationModel)) {
+            models.add(escalationModel);
+        }
+
+        for (String model : models) {
+            OllamaRequest request = new OllamaRequest();
+            request.setModel(model);
+            request.setPrompt("");
+            request.setStream(false);
+            request.setKeepAlive(ollama.getKeepAlive());
+
+            for (OllamaBackend backend : backends) {
+                if (!backend.supports(model)) {
+                    continue;
+                }
+                log.info("Warming up Ollama model {} on {}", model, backend.getUrl());
+                backend.getWebClient().post()
+                        .uri("/generate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(request)
+                        .retrieve()
+                        .toBodilessEntity()
+                        .subscribe(
+                                response -> log.info("Ollama model {} loaded on {}", model, backend.getUrl()),
+                                e -> log.warn("Could not warm up Ollama model {} on {}: {}",
+                                        model, backend.getUrl(), e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Probe every backend and take unresponsive ones out of rotation until they answer again
+     */
+    @Scheduled(fixedDelayString = "${app.ollama.health-check-interval:30000}",
+            initialDelayString = "${app.ollama.health-check-interval:30000}")
+    public void checkHealth() {
+        for (OllamaBackend backend : backends) {
+            backend.getWebClient().get()
+                    .uri("/tags")
+                    .retrieve()
+                    .toBodilessEntity()
+                    .timeout(Duration.ofMillis(appProperties.getOllama().getConnectTimeout()))
+                    .subscribe(
+                            response -> {
+                                if (!backend.isHealthy()) {
+                                    log.info("Ollama backend {} is healthy again", backend.getUrl());
+                                }
+                                backend.setHealthy(true);
+                            },
+                            e -> {
+                                if (backend.isHealthy()) {
+                                    log.warn("Ollama backend {} failed health check: {}", backend.getUrl(), e.getMessage());
+                                }
+                                backend.setHealthy(false);
+                            });
+        }
+    }
+
+    /**
+     * Pick the backend for a request. An ejected backend whose breaker's
+     * open period has passed gets the request as its trial, so it can
+     * rejoin the rotation while its peers are healthy. Otherwise the request
+     * goes to the available backend serving the model with the fewest
+     * outstanding requests that has a free slot. If every candidate is at
+     * its cap, wait for the least loaded one.
+     *
+     * @param model Model of the request
+     * @return Backend with an acquired slot, to be released after the call
+     */
+    private OllamaBackend acquireBackend(String model) {
+        List<OllamaBackend> candidates = backends.stream()
+                .filter(backend -> backend.supports(model))
+                .toList();
+        if (candidates.isEmpty()) {
+            throw new OllamaException("No Ollama backend configured for model " + model);
+        }
+
+        for (OllamaBackend backend : candidates) {
+            if (backend.tryAcquireTrial()) {
+                log.info("Sending trial request to ejected Ollama backend {}", backend.getUrl());
+                return backend;
+            }
+        }
+
+        List<OllamaBackend> available = candidates.stream()
+                .filter(OllamaBackend::isAvailable)
+                .sorted(Comparator.comparingInt(OllamaBackend::getOutstanding))
+                .toList();
+        if (available.isEmpty()) {
+            throw new OllamaException("Ollama is unavailable, every backend for model " + model + " is ejected");
+        }
+
+        for (OllamaBackend backend : available) {
+            if (backend.tryAcquire()) {
+                return backend;
+            }
+        }
+
+        OllamaBackend leastLoaded = available.get(0);
+        try {
+            if (leastLoaded.tryAcquire(appProperties.getOllama().getBulkheadMaxWait())) {
+                return leastLoaded;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OllamaException("Interrupted while waiting for Ollama");
+        }
+        throw new OllamaException("Ollama is busy, too many concurrent requests");
+    }
+}
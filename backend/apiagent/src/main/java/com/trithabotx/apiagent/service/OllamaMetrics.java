@@ -0,0 +1,97 @@
+package com.trithabotx.apiagent.service;
+
+import com.trithabotx.apiagent.dto.OllamaResponse;
+import com.trithabotx.apiagent.model.InferenceStats;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the inference statistics Ollama reports with each completed
+ * generation, both as metrics tagged by caller, model and backend and
+ * into per-operation totals that are persisted with their results
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OllamaMetrics {
+
+    public static final String CALLER_GENERATION = "generation";
+    public static final String CALLER_INSIGHTS = "insights";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Record the statistics of a completed generation
+     *
+     * @param caller   Feature the call was made for
+     * @param response Final Ollama response of the generation
+     * @param stats    Totals of the current operation, may be null
+     */
+    public void record(String caller, OllamaResponse response, InferenceStats stats) {
+        if (response == null || response.getTotalDuration() == null) {
+            return;
+        }
+
+        Tags tags = Tags.of("caller", caller,
+                "model", String.valueOf(response.getModel()),
+                "backend", String.valueOf(response.getBackend()));
+
+        timer("ollama.inference.total", tags, response.getTotalDuration());
+        timer("ollama.inference.load", tags, response.getLoadDuration());
+        timer("ollama.inference.prompt.eval", tags, response.getPromptEvalDuration());
+        timer("ollama.inference.eval", tags, response.getEvalDuration());
+        tokens("ollama.tokens.prompt", tags, response.getPromptEvalCount());
+        tokens("ollama.tokens.eval", tags, response.getEvalCount());
+
+        log.debug("Ollama {} call on {}: {} prompt tokens, {} eval tokens in {} ms",
+                caller, response.getBackend(), response.getPromptEvalCount(), response.getEvalCount(),
+                millis(response.getTotalDuration()));
+
+        if (stats != null) {
+            synchronized (stats) {
+                stats.setCalls(stats.getCalls() + 1);
+                stats.getModels().add(String.valueOf(response.getModel()));
+                stats.getBackends().add(String.valueOf(response.getBackend()));
+                stats.setPromptTokens(stats.getPromptTokens() + value(response.getPromptEvalCount()));
+                stats.setEvalTokens(stats.getEvalTokens() + value(response.getEvalCount()));
+                stats.setTotalDurationMs(stats.getTotalDurationMs() + millis(response.getTotalDuration()));
+                stats.setLoadDurationMs(stats.getLoadDurationMs() + millis(response.getLoadDuration()));
+                stats.setPromptEvalDurationMs(stats.getPromptEvalDurationMs() + millis(response.getPromptEvalDuration()));
+                stats.setEvalDurationMs(stats.getEvalDurationMs() + millis(response.getEvalDuration()));
+                stats.setPromptTokensPerSecond(rate(stats.getPromptTokens(), stats.getPromptEvalDurationMs()));
+                stats.setEvalTokensPerSecond(rate(stats.getEvalTokens(), stats.getEvalDurationMs()));
+            }
+        }
+    }
+
+    private void timer(String name, Tags tags, Long nanos) {
+        if (nanos != null) {
+            Timer.builder(name).tags(tags).register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void tokens(String name, Tags tags, Long count) {
+        if (count != null) {
+            DistributionSummary.builder(name).baseUnit("tokens").tags(tags).register(meterRegistry).record(count);
+        }
+    }
+
+    private static long value(Long value) {
+        return value != null ? value : 0;
+    }
+
+    private static long millis(Long nanos) {
+        return nanos != null ? TimeUnit.NANOSECONDS.toMillis(nanos) : 0;
+    }
+
+    private static double rate(long tokens, long durationMs) {
+        return durationMs > 0 ? tokens * 1000.0 / durationMs : 0.0;
+    }
+}
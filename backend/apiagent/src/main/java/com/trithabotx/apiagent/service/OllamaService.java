@@ -1,113 +1,363 @@
 package com.trithabotx.apiagent.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.trithabotx.apiagent.config.AppProperties;
 import com.trithabotx.apiagent.dto.OllamaRequest;
 import com.trithabotx.apiagent.dto.OllamaResponse;
 import com.trithabotx.apiagent.exception.OllamaException;
+import com.trithabotx.apiagent.model.InferenceStats;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
+import reactor.core.publisher.Flux;
 
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OllamaService {
 
-    private final WebClient.Builder webClientBuilder;
+    /**
+     * Version of the test generation prompt, part of the generation cache key.
+     * Bump it whenever createTestCasePrompt changes.
+     */
+    public static final String PROMPT_TEMPLATE_VERSION = "3";
+
+    private final OllamaClient ollamaClient;
+    private final OllamaMetrics ollamaMetrics;
+    private final LlmJsonExtractor llmJsonExtractor;
     private final AppProperties appProperties;
     private final ObjectMapper objectMapper;
 
+    private final Map<String, CompletableFuture<String>> inFlightRequests = new ConcurrentHashMap<>();
+
     /**
      * Generate test cases using Ollama LLM
      *
-     * @param apiSpec API specification in JSON format
+     * @param apiSpec        API specification in JSON format
+     * @param beyondBaseline Ask only for cases beyond those the rule based generator covers
+     * @param stats          Inference totals of the generation, updated by each call made
      * @return Generated test cases
      */
-    public String generateTestCases(String apiSpec) {
-        String prompt = createTestCasePrompt(apiSpec);
-        return callOllamaApi(prompt);
+    public String generateTestCases(String apiSpec, boolean beyondBaseline, InferenceStats stats) {
+        String prompt = createTestCasePrompt(apiSpec, beyondBaseline);
+        String escalationModel = getEscalationModel();
+
+        if (escalationModel == null) {
+            return callOllamaApi(prompt, getModel(), OllamaMetrics.CALLER_GENERATION, stats);
+        }
+
+        if (isComplex(apiSpec, prompt)) {
+            log.info("Routing complex specification to {}", escalationModel);
+            return callOllamaApi(prompt, escalationModel, OllamaMetrics.CALLER_GENERATION, stats);
+        }
+
+        String response = callOllamaApi(prompt, getModel(), OllamaMetrics.CALLER_GENERATION, stats);
+        if (isValidTestSuite(response)) {
+            return response;
+        }
+
+        log.info("Output of {} is not a valid test suite, escalating to {}", getModel(), escalationModel);
+        return callOllamaApi(prompt, escalationModel, OllamaMetrics.CALLER_GENERATION, stats);
+    }
+
+    /**
+     * Generate test cases using Ollama LLM, streaming the completion as it is produced
+     *
+     * @param apiSpec API specification in JSON format
+     * @param stats   Inference totals of the generation, updated when the model is done
+     * @return Chunks of the generated text
+     */
+    public Flux<String> streamTestCases(String apiSpec, InferenceStats stats) {
+        String prompt = createTestCasePrompt(apiSpec, false);
+        // A streamed response cannot be retried once emitted, so only complexity routing applies
+        String model = getEscalationModel() != null && isComplex(apiSpec, prompt)
+                ? getEscalationModel()
+                : getModel();
+        return streamOllamaApi(prompt, model, OllamaMetrics.CALLER_GENERATION, stats);
+    }
+
+    /**
+     * Ask the model to correct test cases that do not fit the specification
+     *
+     * @param operations Documented operations, one per line
+     * @param testCases  JSON array of the invalid test cases, each with its issues
+     * @param stats      Inference totals of the generation, updated by the call
+     * @return Corrected test cases
+     */
+    public String correctTestCases(String operations, String testCases, InferenceStats stats) {
+        String prompt = createCorrectionPrompt(operations, testCases);
+        // Corrections are few and hard, so they go to the larger model when there is one
+        String model = getEscalationModel() != null ? getEscalationModel() : getModel();
+        return callOllamaApi(prompt, model, OllamaMetrics.CALLER_GENERATION, stats);
+    }
+
+    /**
+     * Estimate the number of prompt tokens of a test generation prompt,
+     * at roughly four characters per token
+     *
+     * @param apiSpec        API specification embedded in the prompt
+     * @param beyondBaseline Whether the prompt asks only for cases beyond the baseline
+     * @return Estimated token count
+     */
+    public int estimatePromptTokens(String apiSpec, boolean beyondBaseline) {
+        return (createTestCasePrompt(apiSpec, beyondBaseline).length() + 3) / 4;
     }
 
     /**
      * Generate test improvement suggestions based on test results
      *
      * @param testResults Test results data
+     * @param stats       Inference totals of the report, updated by the call
      * @return Improvement suggestions
      */
-    public String suggestTestImprovements(String testResults) {
+    public String suggestTestImprovements(String testResults, InferenceStats stats) {
         String prompt = createImprovementPrompt(testResults);
-        return callOllamaApi(prompt);
+        return callOllamaApi(prompt, getModel(), OllamaMetrics.CALLER_INSIGHTS, stats);
     }
 
     /**
-     * Call Ollama API with a prompt
+     * Call Ollama API with a prompt. Concurrent calls with the same prompt share
+     * a single request: the first caller sends it and the others wait for its
+     * result or error. Inference statistics are recorded for the caller that
+     * sent the request only, since the work was done once.
      *
      * @param prompt Text prompt for the model
+     * @param model  Model to generate with
+     * @param caller Feature the call is made for
+     * @param stats  Inference totals to update, may be null
      * @return Model response
      */
-    private String callOllamaApi(String prompt) {
-        log.debug("Calling Ollama API with prompt length: {}", prompt.length());
+    private String callOllamaApi(String prompt, String model, String caller, InferenceStats stats) {
+        String key = RequestFingerprinter.sha256(model + "\n" + samplingOptions() + "\n" + prompt);
 
-        OllamaRequest request = new OllamaRequest();
-        request.setModel(appProperties.getOllama().getModel());
-        request.setPrompt(prompt);
-        request.setStream(false);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> inFlight = inFlightRequests.putIfAbsent(key, pending);
+        if (inFlight != null) {
+            log.info("Joining in-flight Ollama request for identical prompt");
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof OllamaException cause
+                        ? cause
+                        : new OllamaException("Failed to generate content with Ollama: " + e.getCause().getMessage());
+            }
+        }
 
-        Map<String, Object> options = new HashMap<>();
-        options.put("temperature", 0.7);
-        options.put("top_p", 0.9);
-        options.put("max_tokens", 2048);
-        request.setOptions(options);
+        try {
+            String response = requestCompletion(prompt, model, caller, stats);
+            pending.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRequests.remove(key, pending);
+        }
+    }
+
+    /**
+     * Send a prompt to Ollama and wait for the complete response
+     *
+     * @param prompt Text prompt for the model
+     * @param model  Model to generate with
+     * @param caller Feature the call is made for
+     * @param stats  Inference totals to update, may be null
+     * @return Model response
+     */
+    private String requestCompletion(String prompt, String model, String caller, InferenceStats stats) {
+        log.debug("Calling Ollama API with model {} and prompt length: {}", model, prompt.length());
+
+        OllamaRequest request = createRequest(prompt, model, false);
 
         try {
-            OllamaResponse response = webClientBuilder.build()
-                    .post()
-                    .uri(appProperties.getOllama().getUrl() + "/generate")
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(OllamaResponse.class)
-                    .timeout(Duration.ofMillis(appProperties.getOllama().getTimeout()* 2L))
-                    .onErrorResume(e -> {
-                        log.error("Error calling Ollama API: {}", e.getMessage());
-                        return Mono.error(new OllamaException("Failed to communicate with Ollama: " + e.getMessage()));
-                    })
-                    .block();
+            OllamaResponse response = ollamaClient.generate(request,
+                    Duration.ofMillis(appProperties.getOllama().getTimeout() * 2L));
 
             if (response == null || response.getResponse() == null) {
                 throw new OllamaException("Empty response from Ollama API");
             }
+            ollamaMetrics.record(caller, response, stats);
 
             log.debug("Received response from Ollama with length: {}", response.getResponse().length());
             return response.getResponse();
 
+        } catch (OllamaException e) {
+            log.error("Ollama API call failed: {}", e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Exception when calling Ollama API", e);
             throw new OllamaException("Failed to generate content with Ollama: " + e.getMessage());
         }
     }
 
+    /**
+     * Call Ollama API with a prompt and stream the response
+     *
+     * @param prompt Text prompt for the model
+     * @param model  Model to generate with
+     * @param caller Feature the call is made for
+     * @param stats  Inference totals to update, may be null
+     * @return Chunks of the model response, completing when the model is done
+     */
+    private Flux<String> streamOllamaApi(String prompt, String model, String caller, InferenceStats stats) {
+        log.debug("Streaming Ollama API with model {} and prompt length: {}", model, prompt.length());
+
+        OllamaRequest request = createRequest(prompt, model, true);
+
+        return ollamaClient.stream(request)
+                // No chunk for a whole timeout period means the model has stalled
+                .timeout(Duration.ofMillis(appProperties.getOllama().getTimeout()))
+                .takeUntil(response -> Boolean.parseBoolean(response.getDone()))
+                // Only the final chunk carries the inference statistics
+                .doOnNext(response -> ollamaMetrics.record(caller, response, stats))
+                .mapNotNull(OllamaResponse::getResponse)
+                .onErrorMap(e -> !(e instanceof OllamaException), e -> {
+                    log.error("Error streaming from Ollama API: {}", e.getMessage());
+                    return new OllamaException("Failed to communicate with Ollama: " + e.getMessage());
+                });
+    }
+
+    /**
+     * Model used for generation
+     */
+    public String getModel() {
+        return appProperties.getOllama().getModel();
+    }
+
+    /**
+     * Larger model that complex or failed generations are escalated to
+     *
+     * @return Escalation model, or null when escalation is disabled
+     */
+    public String getEscalationModel() {
+        String escalationModel = appProperties.getOllama().getRouting().getEscalationModel();
+        return escalationModel == null || escalationModel.isBlank() || escalationModel.equals(getModel())
+                ? null
+                : escalationModel;
+    }
+
+    /**
+     * Models a generation may go through, in order. Part of the generation
+     * cache key, since the result depends on every model of the route.
+     */
+    public String getModelRoute() {
+        String escalationModel = getEscalationModel();
+        return escalationModel == null ? getModel() : getModel() + " > " + escalationModel;
+    }
+
+    /**
+     * Whether a specification is too complex for the default model, by prompt size or schema nesting depth
+     *
+     * @param apiSpec Specification or specification fragment
+     * @param prompt  Prompt built from the specification
+     * @return true if the specification should go straight to the escalation model
+     */
+    private boolean isComplex(String apiSpec, String prompt) {
+        AppProperties.Routing routing = appProperties.getOllama().getRouting();
+        if (prompt.length() > routing.getMaxPromptSize()) {
+            return true;
+        }
+        try {
+            return depth(objectMapper.readTree(apiSpec)) > routing.getMaxSchemaDepth();
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Nesting depth of a JSON tree
+     */
+    private int depth(JsonNode node) {
+        int max = 0;
+        for (JsonNode child : node) {
+            max = Math.max(max, depth(child));
+        }
+        return node.isContainerNode() ? max + 1 : 0;
+    }
+
+    /**
+     * Check that a model response holds the expected testSuite structure:
+     * a non-empty testCases array whose entries have a method and an endpoint
+     *
+     * @param response Raw response from LLM
+     * @return true if the response can be turned into test cases
+     */
+    public boolean isValidTestSuite(String response) {
+        try {
+            JsonNode testCases = objectMapper.readTree(parseJsonResponse(response)).path("testSuite").path("testCases");
+            if (!testCases.isArray() || testCases.isEmpty()) {
+                return false;
+            }
+            for (JsonNode testCase : testCases) {
+                if (!testCase.path("method").isTextual() || !testCase.path("endpoint").isTextual()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Sampling options sent with every generate request
+     */
+    public Map<String, Object> samplingOptions() {
+        Map<String, Object> options = new HashMap<>();
+        options.put("temperature", 0.7);
+        options.put("top_p", 0.9);
+        options.put("max_tokens", 2048);
+        return options;
+    }
+
+    /**
+     * Create a generate request
+     *
+     * @param prompt Text prompt for the model
+     * @param model  Model to generate with
+     * @param stream Whether the response should be streamed
+     * @return Ollama request
+     */
+    private OllamaRequest createRequest(String prompt, String model, boolean stream) {
+        OllamaRequest request = new OllamaRequest();
+        request.setModel(model);
+        request.setPrompt(prompt);
+        request.setStream(stream);
+        request.setOptions(samplingOptions());
+        request.setKeepAlive(appProperties.getOllama().getKeepAlive());
+        return request;
+    }
+
     /**
      * Create a prompt for test case generation
      *
-     * @param apiSpec API specification in JSON format
+     * @param apiSpec        API specification as compact JSON
+     * @param beyondBaseline Ask only for cases beyond those the rule based generator covers
      * @return Formatted prompt
      */
-    private String createTestCasePrompt(String apiSpec) {
+    private String createTestCasePrompt(String apiSpec, boolean beyondBaseline) {
+        String scope = beyondBaseline
+                ? """
+                Basic cases are already covered: the documented success status of every operation, a missing body,
+                each missing required field, length and range limits of body fields, an unknown resource (404)
+                and missing credentials (401). Do NOT repeat these. Generate only cases beyond them:
+                business rules, interactions between fields, invalid formats, injection and authorization tests.
+                """
+                : "Include positive tests, negative tests, edge cases, and security tests.\n";
         return String.format("""
             You are an API testing expert. Given the following API specification, generate comprehensive test cases in JSON format.
-            Include positive tests, negative tests, edge cases, and security tests.
+            %s
             
-            API SPECIFICATION:
+            API SPECIFICATION (compact JSON, descriptions and examples removed):
             %s
             
             For each endpoint, provide test cases with:
@@ -141,7 +391,39 @@ public class OllamaService {
             }
             
             Return ONLY the JSON without any explanation or markdown.
-            """, apiSpec);
+            """, scope, apiSpec);
+    }
+
+    /**
+     * Create a prompt for correcting invalid test cases
+     *
+     * @param operations Documented operations, one per line
+     * @param testCases  JSON array of the invalid test cases, each with its issues
+     * @return Formatted prompt
+     */
+    private String createCorrectionPrompt(String operations, String testCases) {
+        return String.format("""
+            You are an API testing expert. The following generated test cases do not match the API specification.
+            The problems found in each test case are listed in its "issues" field.
+            
+            OPERATIONS OF THE API:
+            %s
+            
+            INVALID TEST CASES:
+            %s
+            
+            Correct each test case so that it uses a documented operation and a valid request.
+            Keep the name of each test case unchanged and leave out the "issues" field.
+            
+            Format your response as valid JSON with the following structure:
+            {
+              "testSuite": {
+                "testCases": [ ...corrected test cases, with the same fields as above... ]
+              }
+            }
+            
+            Return ONLY the JSON without any explanation or markdown.
+            """, operations, testCases);
     }
 
     /**
@@ -154,6 +436,8 @@ public class OllamaService {
         return String.format("""
             You are an API testing expert. Given the following test results, suggest improvements to the test suite.
             Focus on enhancing coverage, finding edge cases, and improving test reliability.
+            Failed tests are grouped into failure clusters: each cluster describes one failure mode
+            with a representative test and the number of failed tests that share it.
             
             TEST RESULTS:
             %s
@@ -166,28 +450,9 @@ public class OllamaService {
      * Parse JSON response from LLM
      *
      * @param response Raw response from LLM
-     * @return Parsed JSON string
+     * @return Extracted JSON string, or the raw response if it holds no JSON object
      */
     public String parseJsonResponse(String response) {
-        try {
-            // Try to find JSON content in the response
-            int startIdx = response.indexOf('{');
-            int endIdx = response.lastIndexOf('}');
-
-            if (startIdx >= 0 && endIdx > startIdx) {
-                String jsonContent = response.substring(startIdx, endIdx + 1);
-
-                // Validate that it's proper JSON by parsing it
-                objectMapper.readTree(jsonContent);
-
-                return jsonContent;
-            }
-
-            // If we can't find JSON formatting, return the raw response
-            return response;
-        } catch (JsonProcessingException e) {
-            log.warn("Could not parse JSON from LLM response: {}", e.getMessage());
-            return response;
-        }
+        return llmJsonExtractor.extract(response);
     }
 }
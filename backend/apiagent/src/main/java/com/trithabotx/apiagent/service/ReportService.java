@@ -1,15 +1,18 @@
 package com.trithabotx.apiagent.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.trithabotx.apiagent.dto.ReportDTO;
 import com.trithabotx.apiagent.dto.ReportListItemDTO;
 import com.trithabotx.apiagent.dto.TestResultDTO;
+import com.trithabotx.apiagent.exception.ResourceConflictException;
 import com.trithabotx.apiagent.exception.ResourceNotFoundException;
-import com.trithabotx.apiagent.model.TestCase;
-import com.trithabotx.apiagent.model.TestResult;
+import com.trithabotx.apiagent.model.ReportSnapshot;
+import com.trithabotx.apiagent.model.TestCaseSummary;
+import com.trithabotx.apiagent.model.TestResultSummary;
 import com.trithabotx.apiagent.model.TestRun;
+import com.trithabotx.apiagent.model.TestRunStatistics;
 import com.trithabotx.apiagent.model.TestSuite;
+import com.trithabotx.apiagent.repository.ReportSnapshotRepository;
 import com.trithabotx.apiagent.repository.TestCaseRepository;
 import com.trithabotx.apiagent.repository.TestResultRepository;
 import com.trithabotx.apiagent.repository.TestRunRepository;
@@ -22,69 +25,176 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ReportService {
 
+    private static final int MOST_COMMON_ERRORS = 5;
+
     private final TestRunRepository testRunRepository;
     private final TestSuiteRepository testSuiteRepository;
     private final TestCaseRepository testCaseRepository;
     private final TestResultRepository testResultRepository;
-    private final OllamaService ollamaService;
+    private final ReportSnapshotRepository reportSnapshotRepository;
+    private final InsightService insightService;
     private final ObjectMapper objectMapper;
 
     /**
-     * Generate a report for a test run
+     * Get the report of a test run. Finished runs are served from their
+     * snapshot, which is stored on the first read and replaced whenever the
+     * insights of the run change state; running runs are built on each read.
      *
      * @param testRunId Test run ID
-     * @return Generated report
+     * @return Report
      */
     public ReportDTO generateReport(String testRunId) {
-        log.info("Generating report for test run: {}", testRunId);
+        ReportDTO snapshot = readSnapshot(testRunId);
+        if (snapshot != null) {
+            log.info("Serving report snapshot for test run: {}", testRunId);
+            return snapshot;
+        }
+
+        TestRun testRun = findTestRun(testRunId);
+        if ("running".equals(testRun.getStatus())) {
+            return buildReport(testRun);
+        }
+        return materialize(testRun);
+    }
+
+    /**
+     * Start the background work for a finished test run: its insights, then its report snapshot
+     *
+     * @param testRunId Test run ID
+     */
+    public void onRunFinished(String testRunId) {
+        invalidateReport(testRunId);
+        insightService.schedule(testRunId, () -> materializeReport(testRunId));
+    }
 
-        // Fetch test run
-        TestRun testRun = testRunRepository.findById(testRunId)
+    /**
+     * Compute the insights of a finished test run again, e.g. after they failed
+     *
+     * @param testRunId Test run ID
+     */
+    public void retryInsights(String testRunId) {
+        TestRun testRun = findTestRun(testRunId);
+        if ("running".equals(testRun.getStatus())) {
+            throw new ResourceConflictException("Test run " + testRunId + " is still running");
+        }
+
+        testRun.setInsightsStatus(null);
+        testRunRepository.save(testRun);
+        onRunFinished(testRunId);
+    }
+
+    /**
+     * Build and store the report snapshot of a finished test run, replacing any earlier snapshot
+     *
+     * @param testRunId Test run ID
+     */
+    public void materializeReport(String testRunId) {
+        TestRun testRun = findTestRun(testRunId);
+        if ("running".equals(testRun.getStatus())) {
+            return;
+        }
+        materialize(testRun);
+    }
+
+    private ReportDTO materialize(TestRun testRun) {
+        ReportDTO report = buildReport(testRun);
+        saveSnapshot(report);
+        return report;
+    }
+
+    private TestRun findTestRun(String testRunId) {
+        return testRunRepository.findById(testRunId)
                 .orElseThrow(() -> new ResourceNotFoundException("Test run not found: " + testRunId));
+    }
 
-        // Fetch test suite
-        TestSuite testSuite = testSuiteRepository.findById(testRun.getTestSuiteId())
-                .orElseThrow(() -> new ResourceNotFoundException("Test suite not found: " + testRun.getTestSuiteId()));
+    /**
+     * Drop the report snapshot of a test run, so that the next read rebuilds it
+     *
+     * @param testRunId Test run ID
+     */
+    public void invalidateReport(String testRunId) {
+        reportSnapshotRepository.deleteById(testRunId);
+    }
 
-        // Fetch test results
-        List<TestResult> results = testResultRepository.findByTestRunId(testRunId);
+    private ReportDTO readSnapshot(String testRunId) {
+        return reportSnapshotRepository.findById(testRunId)
+                .map(snapshot -> {
+                    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(snapshot.getReport()))) {
+                        return objectMapper.readValue(in, ReportDTO.class);
+                    } catch (IOException e) {
+                        log.warn("Discarding unreadable report snapshot of test run {}: {}", testRunId, e.getMessage());
+                        return null;
+                    }
+                })
+                .orElse(null);
+    }
 
-        // Fetch test cases
-        List<String> testCaseIds = results.stream()
-                .map(TestResult::getTestCaseId)
-                .collect(Collectors.toList());
+    private void saveSnapshot(ReportDTO report) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(report);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (OutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(json);
+            }
+            reportSnapshotRepository.save(ReportSnapshot.builder()
+                    .testRunId(report.getId())
+                    .report(compressed.toByteArray())
+                    .size(json.length)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            log.info("Stored report snapshot for test run {}: {} bytes, {} compressed",
+                    report.getId(), json.length, compressed.size());
+        } catch (IOException e) {
+            log.warn("Could not store report snapshot of test run {}: {}", report.getId(), e.getMessage());
+        }
+    }
 
-        List<TestCase> testCases = testCaseRepository.findAllById(testCaseIds);
+    /**
+     * Build the report of a test run from the run, its suite, results and test cases
+     *
+     * @param testRun Test run
+     * @return Generated report
+     */
+    private ReportDTO buildReport(TestRun testRun) {
+        String testRunId = testRun.getId();
+        log.info("Generating report for test run: {}", testRunId);
 
-        // Create test case map for quick lookup
-        Map<String, TestCase> testCaseMap = testCases.stream()
-                .collect(Collectors.toMap(TestCase::getId, tc -> tc));
+        // Fetch test suite
+        TestSuite testSuite = testSuiteRepository.findById(testRun.getTestSuiteId())
+                .orElseThrow(() -> new ResourceNotFoundException("Test suite not found: " + testRun.getTestSuiteId()));
 
         // Calculate statistics
-        Map<String, Object> statistics = calculateStatistics(results, testCaseMap);
-
-        // Generate insights
-        Map<String, String> insights = generateInsights(testRun, results, testCaseMap);
+        Map<String, Object> statistics = calculateStatistics(testRunId);
+
+        // Insights are computed in the background once the run has finished, the report does not wait for them.
+        // Failed insights are kept until retried explicitly, so that reading a report never calls the LLM again.
+        String insightsStatus = testRun.getInsightsStatus() != null ? testRun.getInsightsStatus() : InsightService.STATUS_PENDING;
+        if (!"running".equals(testRun.getStatus()) && testRun.getInsightsStatus() == null) {
+            // Covers runs whose insights could not be queued when they finished
+            insightService.schedule(testRunId, () -> materializeReport(testRunId));
+        }
 
-        // Process test results
-        List<TestResultDTO> testResultDTOs = results.stream()
-                .map(result -> mapToTestResultDTO(result, testCaseMap.get(result.getTestCaseId())))
-                .collect(Collectors.toList());
+        List<TestResultDTO> testResultDTOs = summarizeResults(testRunId);
 
         // Build report
         return ReportDTO.builder()
@@ -98,84 +208,47 @@ public class ReportService {
                 .duration(calculateDurationInfo(testRun))
                 .summary(testRun.getSummary())
                 .statistics(statistics)
-                .insights(insights)
+                .insights(InsightService.STATUS_PENDING.equals(insightsStatus) ? null : testRun.getInsights())
+                .insightsStatus(insightsStatus)
+                .insightsInference(testRun.getInsightsInference())
+                .generationStats(testSuite.getGenerationStats())
                 .testResults(testResultDTOs)
                 .build();
     }
 
     /**
-     * Calculate statistics for test results
+     * Calculate statistics for test results. The counting is done by a
+     * MongoDB aggregation, so only the aggregated numbers are loaded.
      *
-     * @param results       List of test results
-     * @param testCaseMap   Map of test cases by ID
+     * @param testRunId Test run ID
      * @return Map of statistics
      */
-    private Map<String, Object> calculateStatistics(List<TestResult> results, Map<String, TestCase> testCaseMap) {
+    private Map<String, Object> calculateStatistics(String testRunId) {
         Map<String, Object> stats = new HashMap<>();
-
-        // Basic statistics (already included in TestRunSummary)
-        int totalTests = results.size();
-        long passedTests = results.stream().filter(r -> "passed".equals(r.getStatus())).count();
-        long failedTests = results.stream().filter(r -> "failed".equals(r.getStatus())).count();
-        long skippedTests = results.stream().filter(r -> "skipped".equals(r.getStatus())).count();
-
-        double passRate = totalTests > 0 ? ((double) passedTests / totalTests) * 100 : 0;
+        TestRunStatistics aggregated = testResultRepository.aggregateStatistics(testRunId, MOST_COMMON_ERRORS);
+        if (aggregated == null) {
+            aggregated = new TestRunStatistics();
+        }
 
         // Category statistics
         Map<String, Map<String, Object>> categoryStats = new HashMap<>();
-
-        for (TestResult result : results) {
-            TestCase testCase = testCaseMap.get(result.getTestCaseId());
-            if (testCase != null) {
-                String category = testCase.getCategory() != null ? testCase.getCategory() : "uncategorized";
-
-                if (!categoryStats.containsKey(category)) {
-                    Map<String, Object> categoryStat = new HashMap<>();
-                    categoryStat.put("total", 0);
-                    categoryStat.put("passed", 0);
-                    categoryStat.put("failed", 0);
-                    categoryStat.put("skipped", 0);
-                    categoryStat.put("passRate", 0.0);
-
-                    categoryStats.put(category, categoryStat);
-                }
-
-                Map<String, Object> categoryStat = categoryStats.get(category);
-
-                // Update counts
-                categoryStat.put("total", (int) categoryStat.get("total") + 1);
-
-                if ("passed".equals(result.getStatus())) {
-                    categoryStat.put("passed", (int) categoryStat.get("passed") + 1);
-                } else if ("failed".equals(result.getStatus())) {
-                    categoryStat.put("failed", (int) categoryStat.get("failed") + 1);
-                } else if ("skipped".equals(result.getStatus())) {
-                    categoryStat.put("skipped", (int) categoryStat.get("skipped") + 1);
-                }
-
-                // Calculate pass rate
-                int categoryTotal = (int) categoryStat.get("total");
-                int categoryPassed = (int) categoryStat.get("passed");
-                double categoryPassRate = categoryTotal > 0 ? ((double) categoryPassed / categoryTotal) * 100 : 0;
-                categoryStat.put("passRate", categoryPassRate);
-            }
+        for (TestRunStatistics.CategoryCounts counts : aggregated.getCategories()) {
+            Map<String, Object> categoryStat = new HashMap<>();
+            categoryStat.put("total", (int) counts.getTotal());
+            categoryStat.put("passed", (int) counts.getPassed());
+            categoryStat.put("failed", (int) counts.getFailed());
+            categoryStat.put("skipped", (int) counts.getSkipped());
+            categoryStat.put("passRate", counts.getTotal() > 0 ? ((double) counts.getPassed() / counts.getTotal()) * 100 : 0.0);
+            categoryStats.put(counts.getCategory(), categoryStat);
         }
 
         // Response time statistics
-        List<Long> responseTimes = results.stream()
-                .map(TestResult::getDuration)
-                .filter(Objects::nonNull)
-                .toList();
-
         Map<String, Object> responseTimeStats = new HashMap<>();
-        if (!responseTimes.isEmpty()) {
-            double avgResponseTime = responseTimes.stream().mapToLong(Long::longValue).average().orElse(0);
-            long minResponseTime = Collections.min(responseTimes);
-            long maxResponseTime = Collections.max(responseTimes);
-
-            responseTimeStats.put("average", avgResponseTime);
-            responseTimeStats.put("min", minResponseTime);
-            responseTimeStats.put("max", maxResponseTime);
+        if (!aggregated.getDurations().isEmpty()) {
+            TestRunStatistics.Durations durations = aggregated.getDurations().get(0);
+            responseTimeStats.put("average", durations.getAverage());
+            responseTimeStats.put("min", durations.getMin());
+            responseTimeStats.put("max", durations.getMax());
         } else {
             responseTimeStats.put("average", 0);
             responseTimeStats.put("min", 0);
@@ -183,22 +256,11 @@ public class ReportService {
         }
 
         // Most common errors
-        List<String> allErrors = results.stream()
-                .filter(r -> "failed".equals(r.getStatus()))
-                .filter(r -> r.getValidationErrors() != null && !r.getValidationErrors().isEmpty())
-                .flatMap(r -> r.getValidationErrors().stream())
-                .collect(Collectors.toList());
-
-        Map<String, Long> errorCounts = allErrors.stream()
-                .collect(Collectors.groupingBy(e -> e, Collectors.counting()));
-
-        List<Map<String, Object>> mostCommonErrors = errorCounts.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(5)
-                .map(entry -> {
+        List<Map<String, Object>> mostCommonErrors = aggregated.getErrors().stream()
+                .map(errorCount -> {
                     Map<String, Object> error = new HashMap<>();
-                    error.put("error", entry.getKey());
-                    error.put("count", entry.getValue());
+                    error.put("error", errorCount.getError());
+                    error.put("count", errorCount.getCount());
                     return error;
                 })
                 .collect(Collectors.toList());
@@ -211,68 +273,6 @@ public class ReportService {
         return stats;
     }
 
-    /**
-     * Generate insights using Ollama LLM
-     *
-     * @param testRun      Test run
-     * @param results      List of test results
-     * @param testCaseMap  Map of test cases by ID
-     * @return Map of insights
-     */
-    private Map<String, String> generateInsights(TestRun testRun, List<TestResult> results, Map<String, TestCase> testCaseMap) {
-        try {
-            // Prepare data for Ollama
-            Map<String, Object> insightData = new HashMap<>();
-            insightData.put("testRunSummary", testRun.getSummary());
-
-            List<Map<String, Object>> failedTests = results.stream()
-                    .filter(r -> "failed".equals(r.getStatus()))
-                    .map(r -> {
-                        TestCase testCase = testCaseMap.get(r.getTestCaseId());
-                        Map<String, Object> test = new HashMap<>();
-                        test.put("testName", testCase != null ? testCase.getName() : "Unknown Test");
-                        test.put("category", testCase != null ? testCase.getCategory() : "unknown");
-                        test.put("errors", r.getValidationErrors() != null ? r.getValidationErrors() : Collections.emptyList());
-                        test.put("responseStatus", r.getResponseStatus());
-                        return test;
-                    })
-                    .collect(Collectors.toList());
-
-            insightData.put("failedTests", failedTests);
-
-            // Convert to JSON
-            String dataJson = objectMapper.writeValueAsString(insightData);
-
-            // Generate insights using Ollama
-            String insightText = ollamaService.suggestTestImprovements(dataJson);
-
-            // Parse insights (simple approach)
-            Map<String, String> insights = new HashMap<>();
-
-            String[] paragraphs = insightText.split("\n\n");
-            if (paragraphs.length > 0) {
-                insights.put("summary", paragraphs[0].trim());
-
-                if (paragraphs.length > 1) {
-                    insights.put("details", String.join("\n\n", Arrays.copyOfRange(paragraphs, 1, paragraphs.length)));
-                } else {
-                    insights.put("details", "");
-                }
-            } else {
-                insights.put("summary", "No insights available");
-                insights.put("details", "");
-            }
-
-            return insights;
-        } catch (JsonProcessingException e) {
-            log.error("Error generating insights", e);
-            Map<String, String> fallbackInsights = new HashMap<>();
-            fallbackInsights.put("summary", "Failed to generate insights");
-            fallbackInsights.put("details", "An error occurred while analyzing test results: " + e.getMessage());
-            return fallbackInsights;
-        }
-    }
-
     /**
      * Calculate duration information for a test run
      *
@@ -293,6 +293,28 @@ public class ReportService {
         return durationInfo;
     }
 
+    /**
+     * Summaries of the results of a test run, with the name and category of
+     * their test cases. Only the projected fields are loaded, request and
+     * response headers and bodies are fetched per result on demand.
+     *
+     * @param testRunId Test run ID
+     * @return Result summaries
+     */
+    public List<TestResultDTO> summarizeResults(String testRunId) {
+        List<TestResultSummary> results = testResultRepository.findSummariesByTestRunId(testRunId);
+
+        Set<String> testCaseIds = results.stream()
+                .map(TestResultSummary::getTestCaseId)
+                .collect(Collectors.toSet());
+        Map<String, TestCaseSummary> testCaseMap = testCaseRepository.findSummariesByIdIn(testCaseIds).stream()
+                .collect(Collectors.toMap(TestCaseSummary::getId, tc -> tc));
+
+        return results.stream()
+                .map(result -> mapToTestResultDTO(result, testCaseMap.get(result.getTestCaseId())))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Map TestResult to DTO
      *
@@ -300,7 +322,7 @@ public class ReportService {
      * @param testCase Test case
      * @return Test result DTO
      */
-    private TestResultDTO mapToTestResultDTO(TestResult result, TestCase testCase) {
+    private TestResultDTO mapToTestResultDTO(TestResultSummary result, TestCaseSummary testCase) {
         return TestResultDTO.builder()
                 .id(result.getId())
                 .testCaseId(result.getTestCaseId())
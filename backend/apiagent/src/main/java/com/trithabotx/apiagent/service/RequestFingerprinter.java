@@ -0,0 +1,116 @@
+package com.trithabotx.apiagent.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Computes canonical fingerprints of HTTP requests, so that requests which
+ * differ only in header order, header name case or JSON key order are
+ * considered identical.
+ */
+@Component
+public class RequestFingerprinter {
+
+    private static final Set<String> CREDENTIAL_HEADERS = Set.of("authorization", "proxy-authorization", "cookie");
+
+    private final ObjectWriter canonicalWriter;
+
+    public RequestFingerprinter(ObjectMapper objectMapper) {
+        this.canonicalWriter = objectMapper.writer()
+                .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+    }
+
+    /**
+     * Fingerprint a request
+     *
+     * @param method  HTTP method
+     * @param url     Request URL or endpoint
+     * @param headers Request headers
+     * @param body    Request body, may be null
+     * @return Hex encoded SHA-256 fingerprint
+     */
+    public String fingerprint(String method, String url, Map<String, String> headers, Object body) {
+        return fingerprint(method, url, headers, body, false);
+    }
+
+    /**
+     * Fingerprint a request for recording and replay. Only the presence of
+     * credential headers counts, not their values, so recordings still
+     * match after a token rotates.
+     *
+     * @param method  HTTP method
+     * @param url     Request URL or endpoint
+     * @param headers Request headers
+     * @param body    Request body, may be null
+     * @return Hex encoded SHA-256 fingerprint
+     */
+    public String recordingFingerprint(String method, String url, Map<String, String> headers, Object body) {
+        return fingerprint(method, url, headers, body, true);
+    }
+
+    private String fingerprint(String method, String url, Map<String, String> headers, Object body,
+                               boolean maskCredentials) {
+        StringBuilder canonical = new StringBuilder()
+                .append(method.toUpperCase(Locale.ROOT)).append('\n')
+                .append(url).append('\n');
+
+        Map<String, String> sortedHeaders = new TreeMap<>();
+        if (headers != null) {
+            headers.forEach((name, value) -> {
+                String key = name.toLowerCase(Locale.ROOT);
+                sortedHeaders.put(key, maskCredentials && CREDENTIAL_HEADERS.contains(key) ? "*" : value);
+            });
+        }
+        sortedHeaders.forEach((name, value) -> canonical.append(name).append(':').append(value).append('\n'));
+
+        canonical.append(canonicalBody(body));
+        return sha256(canonical.toString());
+    }
+
+    /**
+     * Serialize a request body with map entries in key order
+     *
+     * @param body Request body, may be null
+     * @return Canonical body text
+     */
+    public String canonicalBody(Object body) {
+        if (body == null) {
+            return "";
+        }
+        if (body instanceof String text) {
+            return text;
+        }
+        try {
+            return canonicalWriter.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            return body.toString();
+        }
+    }
+
+    /**
+     * Hex encoded SHA-256 digest of a text
+     *
+     * @param text Text to hash
+     * @return Hex digest
+     */
+    public static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
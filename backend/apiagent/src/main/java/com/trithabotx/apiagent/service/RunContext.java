@@ -0,0 +1,54 @@
+package com.trithabotx.apiagent.service;
+
+import com.trithabotx.apiagent.dto.CapturedResponse;
+import com.trithabotx.apiagent.dto.TestRunConfigDTO;
+import com.trithabotx.apiagent.model.RecordedExchange;
+import com.trithabotx.apiagent.model.TestRun;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * State shared by all test cases executed as part of one test run
+ */
+@Getter
+@Builder
+public class RunContext {
+
+    public static final String MODE_LIVE = "live";
+    public static final String MODE_RECORD = "record";
+    public static final String MODE_REPLAY = "replay";
+    public static final List<String> MODES = List.of(MODE_LIVE, MODE_RECORD, MODE_REPLAY);
+
+    private final TestRun testRun;
+    private final TestRunConfigDTO config;
+    private final String executionMode;
+    private final RunTerminationGuard guard;
+    private final TimeoutPolicy timeouts;
+
+    /**
+     * Responses of safe requests by request fingerprint, null unless request coalescing is enabled
+     */
+    private final Map<String, CompletableFuture<CapturedResponse>> coalescedResponses;
+
+    /**
+     * Recorded responses by request fingerprint, loaded up front when replaying
+     */
+    private final Map<String, CapturedResponse> recordedResponses;
+
+    /**
+     * Exchanges captured by request fingerprint, filled while recording
+     */
+    private final Map<String, RecordedExchange> recordings;
+
+    public boolean isRecord() {
+        return MODE_RECORD.equals(executionMode);
+    }
+
+    public boolean isReplay() {
+        return MODE_REPLAY.equals(executionMode);
+    }
+}
@@ -0,0 +1,96 @@
+package com.trithabotx.apiagent.service;
+
+import com.trithabotx.apiagent.model.TestResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tracks the health of a test run while it executes and decides when the
+ * remaining test cases should be skipped instead of sent to the target.
+ * A single instance is shared by all worker threads of a run.
+ */
+@Slf4j
+public class RunTerminationGuard {
+
+    private final int circuitBreakerThreshold;
+    private final Integer maxFailures;
+    private final Double maxFailureRate;
+    private final int failureRateMinSamples;
+
+    private final AtomicInteger consecutiveConnectionFailures = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicReference<String> terminationReason = new AtomicReference<>();
+
+    /**
+     * @param circuitBreakerThreshold Consecutive connection failures that open the breaker (0 disables it)
+     * @param maxFailures             Failed test cases after which the run stops (null disables it)
+     * @param maxFailureRate          Failure percentage after which the run stops (null disables it)
+     * @param failureRateMinSamples   Completed test cases required before the failure rate is evaluated
+     */
+    public RunTerminationGuard(int circuitBreakerThreshold, Integer maxFailures,
+                               Double maxFailureRate, int failureRateMinSamples) {
+        this.circuitBreakerThreshold = circuitBreakerThreshold;
+        this.maxFailures = maxFailures;
+        this.maxFailureRate = maxFailureRate;
+        this.failureRateMinSamples = failureRateMinSamples;
+    }
+
+    /**
+     * Reason the run was terminated, or null while test cases may still be executed
+     */
+    public String getTerminationReason() {
+        return terminationReason.get();
+    }
+
+    public boolean isTerminated() {
+        return terminationReason.get() != null;
+    }
+
+    /**
+     * Stop the run. Only the first reason is kept.
+     *
+     * @param reason Human readable reason, stored on skipped results and the test run
+     */
+    public void terminate(String reason) {
+        if (terminationReason.compareAndSet(null, reason)) {
+            log.warn("Terminating test run early: {}", reason);
+        }
+    }
+
+    /**
+     * Record a request that never got a response from the target
+     * (refused connection, unknown host, timeout)
+     */
+    public void recordConnectionFailure() {
+        int failures = consecutiveConnectionFailures.incrementAndGet();
+        if (circuitBreakerThreshold > 0 && failures >= circuitBreakerThreshold) {
+            terminate("Circuit breaker opened after " + failures + " consecutive connection failures");
+        }
+    }
+
+    /**
+     * Record the outcome of an executed test case and evaluate the failure thresholds
+     *
+     * @param result Test result of the executed test case
+     */
+    public void recordResult(TestResult result) {
+        if (result.getResponseStatus() != null) {
+            consecutiveConnectionFailures.set(0);
+        }
+
+        int completedCount = completed.incrementAndGet();
+        int failedCount = "failed".equals(result.getStatus()) ? failed.incrementAndGet() : failed.get();
+
+        if (maxFailures != null && maxFailures > 0 && failedCount >= maxFailures) {
+            terminate("Stopped after " + failedCount + " failed test cases");
+        } else if (maxFailureRate != null && completedCount >= failureRateMinSamples) {
+            double failureRate = ((double) failedCount / completedCount) * 100;
+            if (failureRate >= maxFailureRate) {
+                terminate(String.format("Stopped after failure rate reached %.2f%%", failureRate));
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.trithabotx.apiagent.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shrinks an API specification before it is embedded in a prompt. Fields
+ * that do not affect test generation (descriptions, examples, vendor
+ * extensions, documentation links) are removed and structurally identical
+ * schemas are merged into one. Callers write the result as compact JSON.
+ */
+@Component
+@Slf4j
+public class SpecCompactor {
+
+    private static final Set<String> STRIPPED_FIELDS =
+            Set.of("description", "example", "examples", "externalDocs", "xml",
+                    "termsOfService", "contact", "license");
+
+    /**
+     * Objects whose keys are names chosen by the author rather than keywords,
+     * so a property called "description" is not mistaken for documentation
+     */
+    private static final Set<String> NAME_MAPS =
+            Set.of("paths", "properties", "patternProperties", "definitions", "schemas", "responses",
+                    "parameters", "requestBodies", "headers", "securitySchemes", "securityDefinitions",
+                    "content", "links", "callbacks", "variables", "encoding", "mapping");
+
+    /**
+     * Compact a parsed specification
+     *
+     * @param spec Parsed specification, left unchanged
+     * @return Compacted copy of the specification
+     */
+    public JsonNode compact(JsonNode spec) {
+        JsonNode copy = spec.deepCopy();
+        strip(copy, false);
+        if (copy.isObject()) {
+            ((ObjectNode) copy).remove("tags");
+            dedupeSchemas((ObjectNode) copy, "/components/schemas", "#/components/schemas/");
+            dedupeSchemas((ObjectNode) copy, "/definitions", "#/definitions/");
+        }
+        return copy;
+    }
+
+    /**
+     * Remove documentation fields and vendor extensions in place
+     *
+     * @param node    Node to strip
+     * @param nameMap Whether the keys of the node are names rather than keywords
+     */
+    private void strip(JsonNode node, boolean nameMap) {
+        if (node.isArray()) {
+            node.forEach(element -> strip(element, false));
+            return;
+        }
+        if (!node.isObject()) {
+            return;
+        }
+
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String name = field.getKey();
+            if (!nameMap && (name.startsWith("x-") || STRIPPED_FIELDS.contains(name))) {
+                fields.remove();
+            } else {
+                strip(field.getValue(), !nameMap && NAME_MAPS.contains(name));
+            }
+        }
+    }
+
+    /**
+     * Merge schemas with identical content: duplicates are removed and
+     * references to them are pointed at the first schema of their kind.
+     * Repeated until no duplicates are left, since merging can make
+     * schemas that referenced different duplicates identical.
+     *
+     * @param spec      Specification to modify
+     * @param pointer   Pointer to the schema map
+     * @param refPrefix Reference prefix of schemas in the map
+     */
+    private void dedupeSchemas(ObjectNode spec, String pointer, String refPrefix) {
+        JsonNode schemas = spec.at(pointer);
+        if (!schemas.isObject()) {
+            return;
+        }
+
+        boolean merged = true;
+        while (merged) {
+            Map<JsonNode, String> canonical = new HashMap<>();
+            Map<String, String> replacements = new HashMap<>();
+            schemas.fields().forEachRemaining(schema -> {
+                String existing = canonical.putIfAbsent(schema.getValue(), schema.getKey());
+                if (existing != null) {
+                    replacements.put(refPrefix + schema.getKey(), refPrefix + existing);
+                }
+            });
+
+            merged = !replacements.isEmpty();
+            if (merged) {
+                List<String> duplicates = new ArrayList<>();
+                replacements.keySet().forEach(ref -> duplicates.add(ref.substring(refPrefix.length())));
+                ((ObjectNode) schemas).remove(duplicates);
+                rewriteRefs(spec, replacements);
+                log.debug("Merged {} duplicate schemas", duplicates.size());
+            }
+        }
+    }
+
+    /**
+     * Replace references in place
+     */
+    private void rewriteRefs(JsonNode node, Map<String, String> replacements) {
+        if (node.isObject()) {
+            ObjectNode object = (ObjectNode) node;
+            JsonNode ref = object.get("$ref");
+            if (ref != null && ref.isTextual() && replacements.containsKey(ref.asText())) {
+                object.set("$ref", TextNode.valueOf(replacements.get(ref.asText())));
+            }
+            object.forEach(child -> rewriteRefs(child, replacements));
+        } else if (node instanceof ArrayNode array) {
+            array.forEach(child -> rewriteRefs(child, replacements));
+        }
+    }
+}
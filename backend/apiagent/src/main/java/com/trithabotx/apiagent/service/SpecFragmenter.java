@@ -0,0 +1,140 @@
+package com.trithabotx.apiagent.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.trithabotx.apiagent.dto.SpecFragment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splits an API specification into self-contained fragments of one
+ * operation or one tag each. Every fragment keeps the document header and
+ * only the components its operations reference, directly or transitively.
+ */
+@Component
+@RequiredArgsConstructor
+public class SpecFragmenter {
+
+    public static final String BY_OPERATION = "operation";
+    public static final String BY_TAG = "tag";
+
+    private static final List<String> HEADER_FIELDS =
+            List.of("openapi", "swagger", "info", "servers", "host", "basePath", "schemes",
+                    "consumes", "produces", "security", "securityDefinitions");
+
+    private final ApiSpecParser apiSpecParser;
+    private final RequestFingerprinter requestFingerprinter;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Split a specification into fragments
+     *
+     * @param spec     Parsed specification
+     * @param strategy "operation" or "tag"
+     * @return Fragments in document order
+     */
+    public List<SpecFragment> split(JsonNode spec, String strategy) {
+        Map<String, List<ApiSpecParser.Operation>> groups = new LinkedHashMap<>();
+        for (ApiSpecParser.Operation operation : apiSpecParser.listOperations(spec)) {
+            String group = operation.key();
+            if (BY_TAG.equals(strategy)) {
+                JsonNode tags = operation.definition().path("tags");
+                group = tags.isArray() && !tags.isEmpty() ? tags.get(0).asText() : "default";
+            }
+            groups.computeIfAbsent(group, k -> new ArrayList<>()).add(operation);
+        }
+
+        SpecRefResolver resolver = new SpecRefResolver(spec);
+        List<SpecFragment> fragments = new ArrayList<>();
+        groups.forEach((name, operations) -> fragments.add(buildFragment(spec, name, operations, resolver)));
+        return fragments;
+    }
+
+    /**
+     * Build one fragment holding only the given operations
+     *
+     * @param spec          Parsed specification
+     * @param operationKeys Keys of the operations to keep, "METHOD /path"
+     * @return Fragment, or null if the specification has none of the operations
+     */
+    public SpecFragment extract(JsonNode spec, Collection<String> operationKeys) {
+        List<ApiSpecParser.Operation> operations = apiSpecParser.listOperations(spec).stream()
+                .filter(operation -> operationKeys.contains(operation.key()))
+                .toList();
+        if (operations.isEmpty()) {
+            return null;
+        }
+        return buildFragment(spec, String.join(", ", operationKeys), operations, new SpecRefResolver(spec));
+    }
+
+    /**
+     * Fingerprint every operation by the content of its single operation
+     * fragment, so that an operation changes when its definition, a
+     * component it references or a header field affecting requests
+     * changes. The info object is left out: a version bump alone changes
+     * nothing worth testing.
+     *
+     * @param spec Parsed specification
+     * @return Fingerprint by operation key, in document order
+     */
+    public Map<String, String> fingerprints(JsonNode spec) {
+        Map<String, String> fingerprints = new LinkedHashMap<>();
+        for (SpecFragment fragment : split(spec, BY_OPERATION)) {
+            ObjectNode content = (ObjectNode) fragment.getContent();
+            content.remove("info");
+            // Converted to maps, which the canonical writer orders by key
+            Object canonical = objectMapper.convertValue(content, Map.class);
+            fingerprints.put(fragment.getName(), RequestFingerprinter.sha256(requestFingerprinter.canonicalBody(canonical)));
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Build a fragment for a group of operations
+     */
+    private SpecFragment buildFragment(JsonNode spec, String name, List<ApiSpecParser.Operation> operations,
+                                       SpecRefResolver resolver) {
+        ObjectNode content = objectMapper.createObjectNode();
+        for (String field : HEADER_FIELDS) {
+            if (spec.has(field)) {
+                content.set(field, spec.get(field));
+            }
+        }
+
+        ObjectNode paths = content.putObject("paths");
+        Set<String> refs = new LinkedHashSet<>();
+        for (ApiSpecParser.Operation operation : operations) {
+            JsonNode pathItem = spec.path("paths").path(operation.path());
+            ObjectNode fragmentPath = paths.has(operation.path())
+                    ? (ObjectNode) paths.get(operation.path())
+                    : paths.putObject(operation.path());
+
+            // Path level parameters apply to every operation of the path
+            if (pathItem.has("parameters")) {
+                fragmentPath.set("parameters", pathItem.get("parameters"));
+                refs.addAll(resolver.closure(pathItem.get("parameters")));
+            }
+            fragmentPath.set(operation.method().toLowerCase(), operation.definition());
+            refs.addAll(resolver.closure(operation.definition()));
+        }
+
+        for (String ref : refs) {
+            resolver.copyInto(content, ref);
+        }
+
+        return SpecFragment.builder()
+                .name(name)
+                .operations(operations.stream().map(ApiSpecParser.Operation::key).toList())
+                .content(content)
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.trithabotx.apiagent.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves local {@code $ref} pointers of one specification. Resolved
+ * targets and the references found inside each pointed-to node are
+ * memoized, so shared schemas are only looked up and walked once per
+ * specification. Instances are not thread safe.
+ */
+class SpecRefResolver {
+
+    private static final int MAX_HOPS = 16;
+
+    private final JsonNode root;
+    private final Map<String, JsonNode> targets = new HashMap<>();
+    private final Map<String, List<String>> nestedRefs = new HashMap<>();
+
+    SpecRefResolver(JsonNode root) {
+        this.root = root;
+    }
+
+    /**
+     * The specification references are resolved in
+     */
+    JsonNode root() {
+        return root;
+    }
+
+    /**
+     * Follow a chain of references to the node it ends at
+     *
+     * @param node Node that may be a {@code $ref} object
+     * @return Referenced node, the node itself if it is not a reference,
+     * or a missing node if a reference cannot be resolved
+     */
+    JsonNode follow(JsonNode node) {
+        int hops = 0;
+        while (node.has("$ref") && node.get("$ref").isTextual() && hops++ < MAX_HOPS) {
+            JsonNode target = resolve(node.get("$ref").asText());
+            if (target == null) {
+                return MissingNode.getInstance();
+            }
+            node = target;
+        }
+        return node;
+    }
+
+    /**
+     * All local pointers referenced from a node, directly or through other referenced nodes
+     */
+    Set<String> closure(JsonNode node) {
+        Set<String> result = new LinkedHashSet<>();
+        Deque<String> pending = new ArrayDeque<>(directRefs(node));
+        while (!pending.isEmpty()) {
+            String ref = pending.pop();
+            if (result.add(ref)) {
+                pending.addAll(nestedRefs.computeIfAbsent(ref, r -> {
+                    JsonNode target = resolve(r);
+                    return target != null ? directRefs(target) : List.of();
+                }));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resolve a local pointer such as {@code #/components/schemas/Pet}
+     */
+    JsonNode resolve(String ref) {
+        if (!ref.startsWith("#/")) {
+            return null;
+        }
+        return targets.computeIfAbsent(ref, r -> {
+            JsonNode target = root.at(r.substring(1));
+            return target.isMissingNode() ? null : target;
+        });
+    }
+
+    /**
+     * Copy the node behind a pointer into the same location of another document
+     */
+    void copyInto(ObjectNode document, String ref) {
+        JsonNode target = resolve(ref);
+        if (target == null) {
+            return;
+        }
+        String[] segments = ref.substring(2).split("/");
+        ObjectNode parent = document;
+        for (int i = 0; i < segments.length - 1; i++) {
+            String segment = unescape(segments[i]);
+            JsonNode child = parent.get(segment);
+            parent = child instanceof ObjectNode objectNode ? objectNode : parent.putObject(segment);
+        }
+        parent.set(unescape(segments[segments.length - 1]), target);
+    }
+
+    private static List<String> directRefs(JsonNode node) {
+        List<String> refs = new ArrayList<>();
+        Deque<JsonNode> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            JsonNode current = stack.pop();
+            if (current.isObject()) {
+                Iterator<Map.Entry<String, JsonNode>> fields = current.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    if ("$ref".equals(field.getKey()) && field.getValue().isTextual()) {
+                        refs.add(field.getValue().asText());
+                    } else {
+                        stack.push(field.getValue());
+                    }
+                }
+            } else if (current.isArray()) {
+                current.forEach(stack::push);
+            }
+        }
+        return refs;
+    }
+
+    private static String unescape(String segment) {
+        return segment.replace("~1", "/").replace("~0", "~");
+    }
+}
@@ -0,0 +1,124 @@
+package com.trithabotx.apiagent.service;
+
+import com.trithabotx.apiagent.model.TestCase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Removes generated test cases that send the same request and expect the
+ * same status as an earlier one, however they are named or worded. The
+ * validation rules and expected response fields of a dropped duplicate are
+ * merged into the test case kept.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TestCaseDeduplicator {
+
+    private final RequestFingerprinter requestFingerprinter;
+
+    /**
+     * Deduplicate test cases, keeping the first of each group in order
+     *
+     * @param testCases Generated test cases
+     * @return Distinct test cases
+     */
+    public List<TestCase> deduplicate(List<TestCase> testCases) {
+        Map<String, TestCase> distinct = new LinkedHashMap<>();
+        for (TestCase testCase : testCases) {
+            TestCase kept = distinct.putIfAbsent(fingerprint(testCase), testCase);
+            if (kept != null) {
+                merge(kept, testCase);
+            }
+        }
+
+        int dropped = testCases.size() - distinct.size();
+        if (dropped > 0) {
+            log.info("Dropped {} duplicate test cases of {}", dropped, testCases.size());
+        }
+        return new ArrayList<>(distinct.values());
+    }
+
+    /**
+     * Canonical fingerprint of the request and expected status of a test case.
+     * Header order and case, JSON key order, method case and a trailing slash
+     * on the endpoint do not change the fingerprint.
+     *
+     * @param testCase Test case
+     * @return Fingerprint
+     */
+    public String fingerprint(TestCase testCase) {
+        return requestFingerprinter.fingerprint(
+                testCase.getMethod() != null ? testCase.getMethod() : "",
+                normalizeEndpoint(testCase.getEndpoint()),
+                testCase.getHeaders(),
+                testCase.getBody()) + ":" + testCase.getExpectedStatus();
+    }
+
+    /**
+     * Add the validation rules and expected response fields of a duplicate
+     * that the kept test case does not have yet
+     *
+     * @param kept      Test case kept
+     * @param duplicate Duplicate being dropped
+     */
+    public void merge(TestCase kept, TestCase duplicate) {
+        log.debug("Merging duplicate test case '{}' into '{}'", duplicate.getName(), kept.getName());
+
+        if (duplicate.getValidation() != null) {
+            List<String> validation = kept.getValidation() != null ? new ArrayList<>(kept.getValidation()) : new ArrayList<>();
+            for (String rule : duplicate.getValidation()) {
+                if (validation.stream().noneMatch(existing -> normalizeRule(existing).equals(normalizeRule(rule)))) {
+                    validation.add(rule);
+                }
+            }
+            kept.setValidation(validation);
+        }
+
+        mergeExpectedResponse(kept, duplicate);
+    }
+
+    /**
+     * Take the expected response of a duplicate when the kept test case has
+     * none, or add the fields it does not have when both are objects
+     */
+    @SuppressWarnings("unchecked")
+    private void mergeExpectedResponse(TestCase kept, TestCase duplicate) {
+        Object expected = duplicate.getExpectedResponse();
+        if (expected == null || expected.equals(kept.getExpectedResponse())) {
+            return;
+        }
+        if (kept.getExpectedResponse() == null) {
+            kept.setExpectedResponse(expected);
+        } else if (kept.getExpectedResponse() instanceof Map<?, ?> keptFields && expected instanceof Map<?, ?> fields) {
+            Map<Object, Object> merged = new LinkedHashMap<>((Map<Object, Object>) keptFields);
+            fields.forEach(merged::putIfAbsent);
+            kept.setExpectedResponse(merged);
+        } else {
+            log.info("Dropped expected response of duplicate test case '{}', it differs from the one of '{}'",
+                    duplicate.getName(), kept.getName());
+        }
+    }
+
+    private static String normalizeEndpoint(String endpoint) {
+        if (endpoint == null) {
+            return "";
+        }
+        String normalized = endpoint.trim();
+        while (normalized.length() > 1 && normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+    private static String normalizeRule(String rule) {
+        return rule.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -3,9 +3,16 @@ package com.trithabotx.apiagent.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trithabotx.apiagent.config.AppProperties;
+import com.trithabotx.apiagent.dto.ApiSpecDTO;
+import com.trithabotx.apiagent.dto.ApiSpecInfoDTO;
+import com.trithabotx.apiagent.dto.GenerationEventDTO;
+import com.trithabotx.apiagent.dto.SpecFragment;
 import com.trithabotx.apiagent.dto.TestCaseDTO;
 import com.trithabotx.apiagent.dto.TestSuiteDTO;
 import com.trithabotx.apiagent.exception.ResourceNotFoundException;
+import com.trithabotx.apiagent.model.GenerationStats;
+import com.trithabotx.apiagent.model.InferenceStats;
 import com.trithabotx.apiagent.model.TestCase;
 import com.trithabotx.apiagent.model.TestSuite;
 import com.trithabotx.apiagent.repository.TestCaseRepository;
@@ -14,10 +21,22 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +45,15 @@ import java.util.stream.Collectors;
 public class TestCaseGeneratorService {
 
     private final OllamaService ollamaService;
+    private final GenerationCache generationCache;
+    private final ApiSpecParser apiSpecParser;
+    private final SpecFragmenter specFragmenter;
+    private final SpecCompactor specCompactor;
+    private final TestCaseDeduplicator testCaseDeduplicator;
+    private final TestCaseSpecValidator testCaseSpecValidator;
+    private final BaselineTestCaseGenerator baselineTestCaseGenerator;
+    private final ApiSpecStorage apiSpecStorage;
+    private final AppProperties appProperties;
     private final TestSuiteRepository testSuiteRepository;
     private final TestCaseRepository testCaseRepository;
     private final ObjectMapper objectMapper;
@@ -33,49 +61,94 @@ public class TestCaseGeneratorService {
     /**
      * Generate test cases from an API specification
      *
-     * @param apiSpec API specification
+     * @param request API specification and generation options
      * @return Generated test suite with test cases
      */
     @Transactional
-    public TestSuiteDTO generateTestCases(String apiSpec) {
+    public TestSuiteDTO generateTestCases(ApiSpecDTO request) {
+        return generateTestCases(request, (completed, total) -> {
+        });
+    }
+
+    /**
+     * Generate test cases from an API specification, reporting progress
+     *
+     * @param request  API specification and generation options
+     * @param progress Called with the number of completed and total fragments
+     * @return Generated test suite with test cases
+     */
+    @Transactional
+    public TestSuiteDTO generateTestCases(ApiSpecDTO request, BiConsumer<Integer, Integer> progress) {
         log.info("Generating test cases from API specification");
+        String mode = generationMode(request);
+        GenerationCache.normalizeMode(request.getCache());
+        SourceSpec source = loadSpec(request);
 
         try {
-            // Generate test cases using Ollama
-            String ollamaResponse = ollamaService.generateTestCases(apiSpec);
-            System.out.println(ollamaResponse);
-            String jsonResponse = ollamaService.parseJsonResponse(ollamaResponse);
+            // Fragments are cut from the compacted document, so they are compact as well
+            JsonNode parsedSpec = source.parsed();
+            JsonNode spec = parsedSpec != null ? specCompactor.compact(parsedSpec) : null;
+            String promptSpec = toPromptSpec(spec, source);
 
-            // Parse the response
-            JsonNode rootNode = objectMapper.readTree(jsonResponse);
-            JsonNode testSuiteNode = rootNode.path("testSuite");
+            // Baseline cases come from the full specification, whose examples make good sample values
+            List<TestCase> baseline = new ArrayList<>();
+            if (BaselineTestCaseGenerator.MODE_BASELINE.equals(mode) || BaselineTestCaseGenerator.MODE_HYBRID.equals(mode)) {
+                if (parsedSpec == null) {
+                    throw new IllegalArgumentException("Generation mode " + mode + " requires an OpenAPI specification");
+                }
+                baseline = baselineTestCaseGenerator.generate(parsedSpec);
+            }
 
-            if (testSuiteNode.isMissingNode()) {
-                throw new IllegalArgumentException("Invalid response format: 'testSuite' not found");
+            List<SpecFragment> fragments = Collections.emptyList();
+            InferenceStats inference = new InferenceStats();
+            GenerationResult generated;
+            if (BaselineTestCaseGenerator.MODE_BASELINE.equals(mode)) {
+                progress.accept(1, 1);
+                generated = new GenerationResult(suiteName(parsedSpec), Collections.emptyList(), 0);
+            } else {
+                boolean beyondBaseline = BaselineTestCaseGenerator.MODE_HYBRID.equals(mode);
+                fragments = splitSpec(spec, request.getChunking());
+                if (fragments.isEmpty()) {
+                    progress.accept(0, 1);
+                    generated = generateFromSpec(promptSpec, request.getCache(), beyondBaseline, inference);
+                    progress.accept(1, 1);
+                } else {
+                    progress.accept(0, fragments.size());
+                    generated = generateFromFragments(fragments, request.getCache(), beyondBaseline, inference, progress);
+                }
             }
 
+            GenerationStats generationStats = GenerationStats.builder()
+                    .originalSpecSize((int) source.stored().getSize())
+                    .compactSpecSize(promptSpec.length())
+                    .baselineTestCases(baseline.size())
+                    .prompts(BaselineTestCaseGenerator.MODE_BASELINE.equals(mode) ? 0 : Math.max(1, fragments.size()))
+                    .estimatedPromptTokens(generated.estimatedPromptTokens())
+                    .inference(inference)
+                    .build();
+
+            // Baseline cases go first, so that model cases repeating them are the ones dropped as duplicates
+            List<TestCase> candidates = new ArrayList<>(baseline);
+            candidates.addAll(generated.testCases());
+            List<TestCase> validTestCases = validateAgainstSpec(spec, candidates, generationStats);
+            List<TestCase> testCases = testCaseDeduplicator.deduplicate(validTestCases);
+            generationStats.setDuplicatesRemoved(validTestCases.size() - testCases.size());
+            log.info("Test generation used {} prompts, estimated {} prompt tokens, {} prompt tokens evaluated by Ollama",
+                    generationStats.getPrompts(), generationStats.getEstimatedPromptTokens(), inference.getPromptTokens());
+
             // Create test suite
-            String suiteName = testSuiteNode.path("name").asText("API Test Suite");
             TestSuite testSuite = TestSuite.builder()
-                    .name(suiteName)
-                    .apiSpec(apiSpec)
+                    .name(generated.suiteName())
+                    .apiSpecId(source.stored().getId())
+                    .apiSpecHash(source.stored().getSha256())
+                    .generationStats(generationStats)
                     .build();
 
             testSuite = testSuiteRepository.save(testSuite);
             final String testSuiteId = testSuite.getId();
 
-            // Process test cases
-            List<TestCase> testCases = new ArrayList<>();
-            JsonNode testCasesNode = testSuiteNode.path("testCases");
-
-            if (testCasesNode.isArray()) {
-                for (JsonNode testCaseNode : testCasesNode) {
-                    TestCase testCase = processTestCase(testCaseNode, testSuiteId);
-                    testCases.add(testCase);
-                }
-            }
-
             // Save test cases
+            testCases.forEach(testCase -> testCase.setTestSuiteId(testSuiteId));
             List<TestCase> savedTestCases = testCaseRepository.saveAll(testCases);
 
             // Update test suite with test case IDs
@@ -96,6 +169,7 @@ public class TestCaseGeneratorService {
                     .name(testSuite.getName())
                     .testCasesCount(testCaseDTOs.size())
                     .testCases(testCaseDTOs)
+                    .generationStats(generationStats)
                     .build();
 
         } catch (JsonProcessingException e) {
@@ -108,12 +182,660 @@ public class TestCaseGeneratorService {
     }
 
     /**
-     * Get a test suite by ID
+     * Regenerate a test suite from an updated specification. Operations are
+     * diffed against the specification the suite was generated from: test
+     * cases of unchanged operations are kept as they are, including manual
+     * edits, those of removed or changed operations are deleted, and only
+     * new or changed operations are generated again.
+     *
+     * @param testSuiteId Test suite ID
+     * @param request     Updated API specification and generation options
+     * @return Updated test suite with test cases
+     */
+    @Transactional
+    public TestSuiteDTO regenerateTestSuite(String testSuiteId, ApiSpecDTO request) {
+        TestSuite testSuite = testSuiteRepository.findById(testSuiteId)
+                .orElseThrow(() -> new ResourceNotFoundException("Test suite not found: " + testSuiteId));
+        log.info("Regenerating test suite {} from updated API specification", testSuiteId);
+        String mode = generationMode(request);
+        GenerationCache.normalizeMode(request.getCache());
+
+        JsonNode previousSpec = testSuite.getApiSpecId() != null
+                ? loadSpec(ApiSpecDTO.builder().specId(testSuite.getApiSpecId()).build()).parsed()
+                : apiSpecParser.tryParse(testSuite.getApiSpec());
+        SourceSpec source = loadSpec(request);
+        if (previousSpec == null || source.parsed() == null) {
+            throw new IllegalArgumentException("Only suites generated from an OpenAPI specification can be regenerated, "
+                    + "and only from an OpenAPI specification");
+        }
+
+        try {
+            JsonNode previous = specCompactor.compact(previousSpec);
+            JsonNode spec = specCompactor.compact(source.parsed());
+            Map<String, String> before = specFragmenter.fingerprints(previous);
+            Map<String, String> after = specFragmenter.fingerprints(spec);
+
+            Set<String> changed = new LinkedHashSet<>();
+            after.forEach((operation, fingerprint) -> {
+                if (!fingerprint.equals(before.get(operation))) {
+                    changed.add(operation);
+                }
+            });
+            Set<String> removed = new LinkedHashSet<>(before.keySet());
+            removed.removeAll(after.keySet());
+
+            // Test cases that match no operation, e.g. for undocumented endpoints, are kept
+            TestCaseSpecValidator.SpecIndex previousIndex = testCaseSpecValidator.index(previous);
+            List<TestCase> kept = new ArrayList<>();
+            List<TestCase> stale = new ArrayList<>();
+            for (TestCase testCase : testCaseRepository.findByTestSuiteId(testSuiteId)) {
+                String operation = operationOf(testCase, previousIndex);
+                if (operation != null && (changed.contains(operation) || removed.contains(operation))) {
+                    stale.add(testCase);
+                } else {
+                    testCase.setOperation(operation);
+                    kept.add(testCase);
+                }
+            }
+            log.info("Specification diff: {} new or changed, {} removed, {} unchanged operations; keeping {} and replacing {} test cases",
+                    changed.size(), removed.size(), after.size() - changed.size(), kept.size(), stale.size());
+
+            InferenceStats inference = new InferenceStats();
+            GenerationStats generationStats = GenerationStats.builder()
+                    .originalSpecSize((int) source.stored().getSize())
+                    .regeneratedOperations(changed.size())
+                    .keptTestCases(kept.size())
+                    .removedTestCases(stale.size())
+                    .inference(inference)
+                    .build();
+
+            List<TestCase> candidates = new ArrayList<>();
+            SpecFragment changedFragment = changed.isEmpty() ? null : specFragmenter.extract(spec, changed);
+            if (changedFragment != null) {
+                if (!BaselineTestCaseGenerator.MODE_LLM.equals(mode)) {
+                    List<TestCase> baseline = baselineTestCaseGenerator.generate(source.parsed()).stream()
+                            .filter(testCase -> changed.contains(testCase.getOperation()))
+                            .toList();
+                    generationStats.setBaselineTestCases(baseline.size());
+                    candidates.addAll(baseline);
+                }
+                if (!BaselineTestCaseGenerator.MODE_BASELINE.equals(mode)) {
+                    boolean beyondBaseline = BaselineTestCaseGenerator.MODE_HYBRID.equals(mode);
+                    String promptSpec = objectMapper.writeValueAsString(changedFragment.getContent());
+                    List<SpecFragment> fragments = splitSpec(changedFragment.getContent(), request.getChunking());
+                    GenerationResult generated = fragments.isEmpty()
+                            ? generateFromSpec(promptSpec, request.getCache(), beyondBaseline, inference)
+                            : generateFromFragments(fragments, request.getCache(), beyondBaseline, inference, (completed, total) -> {
+                            });
+                    generationStats.setCompactSpecSize(promptSpec.length());
+                    generationStats.setPrompts(Math.max(1, fragments.size()));
+                    generationStats.setEstimatedPromptTokens(generated.estimatedPromptTokens());
+                    candidates.addAll(generated.testCases());
+                }
+            }
+
+            // Cases the model wrote for unchanged operations would duplicate the kept ones
+            List<TestCase> validTestCases = validateAgainstSpec(spec, candidates, generationStats).stream()
+                    .filter(testCase -> testCase.getOperation() == null || changed.contains(testCase.getOperation()))
+                    .toList();
+            Set<String> keptFingerprints = kept.stream()
+                    .map(testCaseDeduplicator::fingerprint)
+                    .collect(Collectors.toSet());
+            List<TestCase> testCases = testCaseDeduplicator.deduplicate(validTestCases).stream()
+                    .filter(testCase -> !keptFingerprints.contains(testCaseDeduplicator.fingerprint(testCase)))
+                    .toList();
+            generationStats.setDuplicatesRemoved(validTestCases.size() - testCases.size());
+
+            testCases.forEach(testCase -> testCase.setTestSuiteId(testSuiteId));
+            List<TestCase> savedTestCases = new ArrayList<>(kept);
+            savedTestCases.addAll(testCaseRepository.saveAll(testCases));
+            testCaseRepository.deleteAll(stale);
+
+            testSuite.setApiSpecId(source.stored().getId());
+            testSuite.setApiSpecHash(source.stored().getSha256());
+            testSuite.setApiSpec(null);
+            testSuite.setGenerationStats(generationStats);
+            testSuite.setTestCaseIds(savedTestCases.stream()
+                    .map(TestCase::getId)
+                    .collect(Collectors.toList()));
+            testSuiteRepository.save(testSuite);
+
+            List<TestCaseDTO> testCaseDTOs = savedTestCases.stream()
+                    .map(this::mapToTestCaseDTO)
+                    .collect(Collectors.toList());
+
+            return TestSuiteDTO.builder()
+                    .id(testSuite.getId())
+                    .name(testSuite.getName())
+                    .apiSpecId(testSuite.getApiSpecId())
+                    .createdAt(testSuite.getCreatedAt())
+                    .testCasesCount(testCaseDTOs.size())
+                    .testCases(testCaseDTOs)
+                    .generationStats(generationStats)
+                    .build();
+
+        } catch (Exception e) {
+            log.error("Error regenerating test suite {}", testSuiteId, e);
+            throw new RuntimeException("Failed to regenerate test suite: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Generation mode of a request
+     *
+     * @param request Generation request
+     * @return "llm", "baseline" or "hybrid", the configured default if the request sets none
+     */
+    private String generationMode(ApiSpecDTO request) {
+        String mode = request.getMode() != null ? request.getMode().toLowerCase() : appProperties.getGeneration().getMode();
+        if (!List.of(BaselineTestCaseGenerator.MODE_LLM, BaselineTestCaseGenerator.MODE_BASELINE,
+                BaselineTestCaseGenerator.MODE_HYBRID).contains(mode)) {
+            throw new IllegalArgumentException("Unknown generation mode: " + mode);
+        }
+        return mode;
+    }
+
+    /**
+     * Operation a test case exercises: the one stored at generation, or the
+     * one its request matches in the specification, e.g. after it was edited
+     *
+     * @param testCase Test case
+     * @param index    Index of the specification the test case was generated from
+     * @return Operation key, or null if the request matches no operation
+     */
+    static String operationOf(TestCase testCase, TestCaseSpecValidator.SpecIndex index) {
+        return testCase.getOperation() != null ? testCase.getOperation() : index.operationOf(testCase);
+    }
+
+    /**
+     * Split a specification into fragments for chunked generation
+     *
+     * @param spec     Parsed API specification, null if it is not a parsable OpenAPI document
+     * @param chunking Requested chunking: "none", "operation", "tag" or "auto" (null uses the configured default)
+     * @return Fragments, or an empty list to generate from the whole specification
+     */
+    private List<SpecFragment> splitSpec(JsonNode spec, String chunking) {
+        AppProperties.Generation generation = appProperties.getGeneration();
+        String strategy = chunking != null ? chunking.toLowerCase() : generation.getChunking();
+        if ("none".equals(strategy)) {
+            return Collections.emptyList();
+        }
+
+        if (spec == null) {
+            log.info("Specification is not a parsable OpenAPI document, generating from the whole specification");
+            return Collections.emptyList();
+        }
+
+        if ("auto".equals(strategy)) {
+            int operations = apiSpecParser.listOperations(spec).size();
+            if (operations <= generation.getChunkThreshold()) {
+                return Collections.emptyList();
+            }
+            strategy = SpecFragmenter.BY_OPERATION;
+        }
+
+        List<SpecFragment> fragments = specFragmenter.split(spec, strategy);
+        log.info("Split specification into {} fragments by {}", fragments.size(), strategy);
+        return fragments.size() > 1 ? fragments : Collections.emptyList();
+    }
+
+    /**
+     * Generate test cases for a whole specification with a single prompt
+     *
+     * @param apiSpec   API specification
+     * @param cacheMode      Generation cache mode: "use", "refresh" or "bypass"
+     * @param beyondBaseline Ask the model only for cases beyond the rule based baseline
+     * @param inference      Inference totals of the generation
+     * @return Suite name and test cases
+     */
+    private GenerationResult generateFromSpec(String apiSpec, String cacheMode, boolean beyondBaseline,
+                                              InferenceStats inference) throws JsonProcessingException {
+        String cacheKey = generationCache.keyFor(apiSpec, beyondBaseline);
+        String jsonResponse = generationCache.get(cacheKey, cacheMode);
+        boolean cached = jsonResponse != null;
+
+        if (!cached) {
+            // Generate test cases using Ollama
+            String ollamaResponse = ollamaService.generateTestCases(apiSpec, beyondBaseline, inference);
+            log.debug("Ollama response: {}", ollamaResponse);
+            jsonResponse = ollamaService.parseJsonResponse(ollamaResponse);
+        }
+
+        // Parse the response
+        JsonNode rootNode = objectMapper.readTree(jsonResponse);
+        JsonNode testSuiteNode = rootNode.path("testSuite");
+
+        if (testSuiteNode.isMissingNode()) {
+            throw new IllegalArgumentException("Invalid response format: 'testSuite' not found");
+        }
+
+        // Only well-formed results are worth keeping
+        if (!cached) {
+            generationCache.put(cacheKey, jsonResponse, cacheMode);
+        }
+
+        // Process test cases
+        List<TestCase> testCases = new ArrayList<>();
+        JsonNode testCasesNode = testSuiteNode.path("testCases");
+
+        if (testCasesNode.isArray()) {
+            for (JsonNode testCaseNode : testCasesNode) {
+                testCases.add(processTestCase(testCaseNode, null));
+            }
+        }
+
+        return new GenerationResult(testSuiteNode.path("name").asText("API Test Suite"), testCases,
+                ollamaService.estimatePromptTokens(apiSpec, beyondBaseline));
+    }
+
+    /**
+     * Generate test cases for each fragment concurrently and merge the results.
+     * Fragments that fail are logged and left out; generation only fails if every fragment fails.
+     *
+     * @param fragments      Specification fragments
+     * @param cacheMode      Generation cache mode: "use", "refresh" or "bypass"
+     * @param beyondBaseline Ask the model only for cases beyond the rule based baseline
+     * @param inference      Inference totals of the generation
+     * @param progress       Called with the number of completed and total fragments
+     * @return Suite name and merged test cases
+     */
+    private GenerationResult generateFromFragments(List<SpecFragment> fragments, String cacheMode, boolean beyondBaseline,
+                                                   InferenceStats inference, BiConsumer<Integer, Integer> progress) {
+        AtomicInteger completedFragments = new AtomicInteger();
+        int concurrency = Math.max(1, Math.min(fragments.size(), appProperties.getGeneration().getMaxConcurrency()));
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+
+        try {
+            List<CompletableFuture<GenerationResult>> futures = fragments.stream()
+                    .map(fragment -> CompletableFuture.supplyAsync(() -> {
+                        try {
+                            String fragmentSpec = objectMapper.writeValueAsString(fragment.getContent());
+                            GenerationResult result = generateFromSpec(fragmentSpec, cacheMode, beyondBaseline, inference);
+                            log.info("Generated {} test cases for fragment: {}", result.testCases().size(), fragment.getName());
+                            return result;
+                        } catch (Exception e) {
+                            log.error("Error generating test cases for fragment {}: {}", fragment.getName(), e.getMessage());
+                            return null;
+                        } finally {
+                            synchronized (progress) {
+                                progress.accept(completedFragments.incrementAndGet(), fragments.size());
+                            }
+                        }
+                    }, executor))
+                    .toList();
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+            List<TestCase> testCases = new ArrayList<>();
+            int failedFragments = 0;
+            int estimatedPromptTokens = 0;
+            for (CompletableFuture<GenerationResult> future : futures) {
+                GenerationResult result = future.join();
+                if (result == null) {
+                    failedFragments++;
+                } else {
+                    testCases.addAll(result.testCases());
+                    estimatedPromptTokens += result.estimatedPromptTokens();
+                }
+            }
+
+            if (failedFragments == fragments.size()) {
+                throw new IllegalStateException("Test case generation failed for every specification fragment");
+            }
+            if (failedFragments > 0) {
+                log.warn("Test case generation failed for {} of {} specification fragments", failedFragments, fragments.size());
+            }
+
+            return new GenerationResult(suiteName(fragments.get(0).getContent()), testCases, estimatedPromptTokens);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Generate test cases from an API specification, persisting each test case
+     * as soon as the model has finished emitting it. If generation fails part
+     * way through, the test cases received so far are kept.
+     *
+     * @param request API specification, inline or uploaded
+     * @return Generation progress events, ending with a completed event
+     */
+    public Flux<GenerationEventDTO> streamTestCases(ApiSpecDTO request) {
+        return Flux.defer(() -> {
+            log.info("Streaming test case generation from API specification");
+
+            SourceSpec source = loadSpec(request);
+            JsonNode spec = source.parsed() != null ? specCompactor.compact(source.parsed()) : null;
+            String promptSpec = toPromptSpec(spec, source);
+            TestCaseSpecValidator.SpecIndex specIndex = spec != null ? testCaseSpecValidator.index(spec) : null;
+            String validationPolicy = appProperties.getGeneration().getValidation().getPolicy();
+            InferenceStats inference = new InferenceStats();
+            TestSuite testSuite = testSuiteRepository.save(TestSuite.builder()
+                    .name("API Test Suite")
+                    .apiSpecId(source.stored().getId())
+                    .apiSpecHash(source.stored().getSha256())
+                    .generationStats(GenerationStats.builder()
+                            .originalSpecSize((int) source.stored().getSize())
+                            .compactSpecSize(promptSpec.length())
+                            .prompts(1)
+                            .estimatedPromptTokens(ollamaService.estimatePromptTokens(promptSpec, false))
+                            .inference(inference)
+                            .build())
+                    .build());
+            final String testSuiteId = testSuite.getId();
+
+            TestCaseStreamParser parser = new TestCaseStreamParser();
+            List<TestCase> savedTestCases = new ArrayList<>();
+            Map<String, TestCase> savedByFingerprint = new HashMap<>();
+
+            Flux<GenerationEventDTO> testCaseEvents = ollamaService.streamTestCases(promptSpec, inference)
+                    .publishOn(Schedulers.boundedElastic())
+                    .concatMapIterable(parser::feed)
+                    .concatMap(json -> {
+                        TestCase testCase = parseStreamedTestCase(json, testSuiteId);
+                        if (testCase == null || !checkStreamedTestCase(testCase, specIndex, validationPolicy,
+                                testSuite.getGenerationStats())) {
+                            return Flux.empty();
+                        }
+                        String fingerprint = testCaseDeduplicator.fingerprint(testCase);
+                        TestCase kept = savedByFingerprint.get(fingerprint);
+                        if (kept != null) {
+                            testCaseDeduplicator.merge(kept, testCase);
+                            testCaseRepository.save(kept);
+                            GenerationStats stats = testSuite.getGenerationStats();
+                            stats.setDuplicatesRemoved(stats.getDuplicatesRemoved() + 1);
+                            return Flux.empty();
+                        }
+                        TestCase saved = testCaseRepository.save(testCase);
+                        savedTestCases.add(saved);
+                        savedByFingerprint.put(fingerprint, saved);
+                        return Flux.just(GenerationEventDTO.builder()
+                                .type("testCase")
+                                .testSuiteId(testSuiteId)
+                                .testCasesCount(savedTestCases.size())
+                                .testCase(mapToTestCaseDTO(saved))
+                                .build());
+                    })
+                    .onErrorResume(e -> {
+                        log.error("Streaming generation failed for test suite {} after {} test cases: {}",
+                                testSuiteId, savedTestCases.size(), e.getMessage());
+                        return Flux.just(GenerationEventDTO.builder()
+                                .type("error")
+                                .testSuiteId(testSuiteId)
+                                .testCasesCount(savedTestCases.size())
+                                .message(e.getMessage())
+                                .build());
+                    });
+
+            Flux<GenerationEventDTO> completion = Flux.defer(() -> {
+                if (parser.getSuiteName() != null && !parser.getSuiteName().isBlank()) {
+                    testSuite.setName(parser.getSuiteName());
+                }
+                testSuite.setTestCaseIds(savedTestCases.stream()
+                        .map(TestCase::getId)
+                        .collect(Collectors.toList()));
+                testSuiteRepository.save(testSuite);
+
+                List<TestCaseDTO> testCaseDTOs = savedTestCases.stream()
+                        .map(this::mapToTestCaseDTO)
+                        .collect(Collectors.toList());
+
+                return Flux.just(GenerationEventDTO.builder()
+                        .type("completed")
+                        .testSuiteId(testSuiteId)
+                        .testCasesCount(testCaseDTOs.size())
+                        .testSuite(TestSuiteDTO.builder()
+                                .id(testSuite.getId())
+                                .name(testSuite.getName())
+                                .testCasesCount(testCaseDTOs.size())
+                                .testCases(testCaseDTOs)
+                                .generationStats(testSuite.getGenerationStats())
+                                .build())
+                        .build());
+            });
+
+            GenerationEventDTO started = GenerationEventDTO.builder()
+                    .type("started")
+                    .testSuiteId(testSuiteId)
+                    .build();
+
+            return Flux.concat(Flux.just(started), testCaseEvents, completion);
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Suite name derived from the title of a specification
+     */
+    private String suiteName(JsonNode spec) {
+        String title = spec.path("info").path("title").asText("");
+        return title.isBlank() ? "API Test Suite" : "API Test Suite for " + title;
+    }
+
+    /**
+     * Specification of a generation request, stored once in GridFS
+     *
+     * @param stored Stored specification
+     * @param parsed Parsed specification, null if it is not a parsable OpenAPI document
+     * @param text   Specification text, only loaded when it could not be parsed
+     */
+    private record SourceSpec(ApiSpecInfoDTO stored, JsonNode parsed, String text) {
+    }
+
+    /**
+     * Resolve the specification of a generation request. An uploaded
+     * specification is parsed straight from GridFS; an inline one is stored
+     * so that the test suite can reference it instead of embedding it.
+     *
+     * @param request API specification, inline or uploaded
+     * @return Specification to generate from
+     */
+    private SourceSpec loadSpec(ApiSpecDTO request) {
+        if (request.getSpecId() == null || request.getSpecId().isBlank()) {
+            String content = request.getContent();
+            ApiSpecInfoDTO stored = apiSpecStorage.store(content);
+            return new SourceSpec(stored, apiSpecParser.tryParse(content), content);
+        }
+
+        ApiSpecInfoDTO stored = apiSpecStorage.info(request.getSpecId());
+        try {
+            JsonNode parsed = apiSpecStorage.read(stored.getId());
+            if (parsed.path("paths").isObject()) {
+                return new SourceSpec(stored, parsed, null);
+            }
+        } catch (IllegalArgumentException e) {
+            log.debug("Stored API specification {} could not be parsed: {}", stored.getId(), e.getMessage());
+        }
+        return new SourceSpec(stored, null, apiSpecStorage.load(stored.getId()));
+    }
+
+    /**
+     * Text of a specification to embed in prompts
+     *
+     * @param spec   Compacted specification, or null
+     * @param source Specification of the request
+     * @return Compact JSON specification, or the specification as supplied if it could not be parsed
+     */
+    private String toPromptSpec(JsonNode spec, SourceSpec source) {
+        if (spec == null) {
+            return source.text();
+        }
+        try {
+            String compacted = objectMapper.writeValueAsString(spec);
+            log.info("Compacted API specification from {} to {} characters", source.stored().getSize(), compacted.length());
+            return compacted;
+        } catch (JsonProcessingException e) {
+            return source.text() != null ? source.text() : apiSpecStorage.load(source.stored().getId());
+        }
+    }
+
+    /**
+     * Check generated test cases against the specification. Repairs are
+     * applied to every test case; test cases still invalid are optionally
+     * sent back to the model for correction, then dropped or flagged
+     * according to the validation policy.
+     *
+     * @param spec      Compacted specification, or null to skip validation
+     * @param testCases Generated test cases
+     * @param stats     Generation statistics to update
+     * @return Test cases to keep
+     */
+    private List<TestCase> validateAgainstSpec(JsonNode spec, List<TestCase> testCases, GenerationStats stats) {
+        AppProperties.Validation settings = appProperties.getGeneration().getValidation();
+        if (spec == null || TestCaseSpecValidator.POLICY_NONE.equals(settings.getPolicy())) {
+            return testCases;
+        }
+
+        TestCaseSpecValidator.SpecIndex specIndex = testCaseSpecValidator.index(spec);
+        List<TestCase> valid = new ArrayList<>();
+        List<TestCase> invalid = new ArrayList<>();
+        for (TestCase testCase : testCases) {
+            TestCaseSpecValidator.Validation validation = specIndex.validate(testCase);
+            testCase.setOperation(validation.operation());
+            if (validation.repaired()) {
+                stats.setRepairedTestCases(stats.getRepairedTestCases() + 1);
+            }
+            if (validation.isValid()) {
+                valid.add(testCase);
+            } else {
+                testCase.setSpecIssues(validation.issues());
+                invalid.add(testCase);
+            }
+        }
+        stats.setInvalidTestCases(invalid.size());
+
+        if (!invalid.isEmpty() && settings.isReprompt()) {
+            List<TestCase> corrected = correctTestCases(specIndex, invalid, stats.getInference());
+            for (TestCase testCase : corrected) {
+                // A corrected test case replaces the invalid one of the same name
+                invalid.removeIf(original -> original.getName().equals(testCase.getName()));
+            }
+            valid.addAll(corrected);
+            stats.setCorrectedTestCases(corrected.size());
+        }
+
+        if (!invalid.isEmpty()) {
+            invalid.forEach(testCase ->
+                    log.info("Test case '{}' does not fit the specification: {}", testCase.getName(), testCase.getSpecIssues()));
+            if (TestCaseSpecValidator.POLICY_FLAG.equals(settings.getPolicy())) {
+                valid.addAll(invalid);
+            } else {
+                log.warn("Dropped {} test cases that do not fit the specification", invalid.size());
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Send invalid test cases back to the model for correction
+     *
+     * @param specIndex Specification index
+     * @param invalid   Invalid test cases with their issues
+     * @param inference Inference totals of the generation
+     * @return Corrected test cases that pass validation
+     */
+    private List<TestCase> correctTestCases(TestCaseSpecValidator.SpecIndex specIndex, List<TestCase> invalid,
+                                            InferenceStats inference) {
+        try {
+            List<Map<String, Object>> cases = invalid.stream()
+                    .map(testCase -> {
+                        Map<String, Object> entry = objectMapper.convertValue(mapToTestCaseDTO(testCase),
+                                objectMapper.getTypeFactory().constructMapType(LinkedHashMap.class, String.class, Object.class));
+                        entry.keySet().removeAll(List.of("id", "testSuiteId", "createdAt", "updatedAt", "specIssues", "operation"));
+                        entry.put("issues", testCase.getSpecIssues());
+                        return entry;
+                    })
+                    .toList();
+
+            String response = ollamaService.correctTestCases(specIndex.describeOperations(),
+                    objectMapper.writeValueAsString(cases), inference);
+            JsonNode testCasesNode = objectMapper.readTree(ollamaService.parseJsonResponse(response))
+                    .path("testSuite").path("testCases");
+
+            List<TestCase> corrected = new ArrayList<>();
+            for (JsonNode testCaseNode : testCasesNode) {
+                TestCase testCase = processTestCase(testCaseNode, null);
+                TestCaseSpecValidator.Validation validation = specIndex.validate(testCase);
+                if (validation.isValid()) {
+                    testCase.setOperation(validation.operation());
+                    corrected.add(testCase);
+                }
+            }
+            log.info("Model corrected {} of {} invalid test cases", corrected.size(), invalid.size());
+            return corrected;
+        } catch (Exception e) {
+            log.warn("Could not correct invalid test cases: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Check a streamed test case against the specification, applying the validation policy
+     *
+     * @param testCase  Streamed test case, repaired or flagged in place
+     * @param specIndex Specification index, or null to skip validation
+     * @param policy    Validation policy
+     * @param stats     Generation statistics to update
+     * @return Whether the test case should be kept
+     */
+    private boolean checkStreamedTestCase(TestCase testCase, TestCaseSpecValidator.SpecIndex specIndex, String policy,
+                                          GenerationStats stats) {
+        if (specIndex == null || TestCaseSpecValidator.POLICY_NONE.equals(policy)) {
+            return true;
+        }
+        TestCaseSpecValidator.Validation validation = specIndex.validate(testCase);
+        testCase.setOperation(validation.operation());
+        if (validation.repaired()) {
+            stats.setRepairedTestCases(stats.getRepairedTestCases() + 1);
+        }
+        if (validation.isValid()) {
+            return true;
+        }
+
+        stats.setInvalidTestCases(stats.getInvalidTestCases() + 1);
+        log.info("Streamed test case '{}' does not fit the specification: {}", testCase.getName(), validation.issues());
+        testCase.setSpecIssues(validation.issues());
+        return TestCaseSpecValidator.POLICY_FLAG.equals(policy);
+    }
+
+    /**
+     * Parse a test case object received from a streamed completion
+     *
+     * @param json        JSON text of a single test case
+     * @param testSuiteId Test suite ID
+     * @return Test case entity, or null if the object is not a usable test case
+     */
+    private TestCase parseStreamedTestCase(String json, String testSuiteId) {
+        try {
+            TestCase testCase = processTestCase(objectMapper.readTree(json), testSuiteId);
+            if (testCase.getMethod().isBlank() || testCase.getEndpoint().isBlank()) {
+                log.warn("Skipping streamed test case without method or endpoint: {}", testCase.getName());
+                return null;
+            }
+            return testCase;
+        } catch (Exception e) {
+            log.warn("Skipping malformed streamed test case: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Get a test suite by ID, without its specification
      *
      * @param testSuiteId Test suite ID
      * @return Test suite with test cases
      */
     public TestSuiteDTO getTestSuite(String testSuiteId) {
+        return getTestSuite(testSuiteId, false);
+    }
+
+    /**
+     * Get a test suite by ID
+     *
+     * @param testSuiteId Test suite ID
+     * @param includeSpec Whether to load the specification the suite was generated from
+     * @return Test suite with test cases
+     */
+    public TestSuiteDTO getTestSuite(String testSuiteId, boolean includeSpec) {
         TestSuite testSuite = testSuiteRepository.findById(testSuiteId)
                 .orElseThrow(() -> new ResourceNotFoundException("Test suite not found: " + testSuiteId));
 
@@ -126,13 +848,22 @@ public class TestCaseGeneratorService {
         return TestSuiteDTO.builder()
                 .id(testSuite.getId())
                 .name(testSuite.getName())
-                .apiSpec(testSuite.getApiSpec())
+                .apiSpecId(testSuite.getApiSpecId())
+                .apiSpec(includeSpec ? suiteSpec(testSuite) : null)
                 .createdAt(testSuite.getCreatedAt())
+                .generationStats(testSuite.getGenerationStats())
                 .testCasesCount(testCaseDTOs.size())
                 .testCases(testCaseDTOs)
                 .build();
     }
 
+    /**
+     * Specification text of a test suite, from GridFS or embedded in suites that predate it
+     */
+    private String suiteSpec(TestSuite testSuite) {
+        return testSuite.getApiSpecId() != null ? apiSpecStorage.load(testSuite.getApiSpecId()) : testSuite.getApiSpec();
+    }
+
     /**
      * Update a test case
      *
@@ -144,8 +875,19 @@ public class TestCaseGeneratorService {
     public TestCaseDTO updateTestCase(String testCaseId, Map<String, Object> updates) {
         TestCase testCase = testCaseRepository.findById(testCaseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Test case not found: " + testCaseId));
+        applyUpdates(testCase, updates);
+
+        TestCase updatedTestCase = testCaseRepository.save(testCase);
+        return mapToTestCaseDTO(updatedTestCase);
+    }
 
-        // Apply updates
+    /**
+     * Apply the updates of a test case edit
+     *
+     * @param testCase Test case to update
+     * @param updates  Updates to apply
+     */
+    static void applyUpdates(TestCase testCase, Map<String, Object> updates) {
         if (updates.containsKey("name")) {
             testCase.setName((String) updates.get("name"));
         }
@@ -162,6 +904,10 @@ public class TestCaseGeneratorService {
             testCase.setHeaders((Map<String, String>) updates.get("headers"));
         }
 
+        if (updates.containsKey("excludeHeaders")) {
+            testCase.setExcludeHeaders((List<String>) updates.get("excludeHeaders"));
+        }
+
         if (updates.containsKey("body")) {
             testCase.setBody(updates.get("body"));
         }
@@ -183,8 +929,10 @@ public class TestCaseGeneratorService {
             testCase.setCategory((String) updates.get("category"));
         }
 
-        TestCase updatedTestCase = testCaseRepository.save(testCase);
-        return mapToTestCaseDTO(updatedTestCase);
+        // The case may now exercise another operation, regeneration resolves it again from the specification
+        if (updates.containsKey("method") || updates.containsKey("endpoint")) {
+            testCase.setOperation(null);
+        }
     }
 
     /**
@@ -260,6 +1008,12 @@ public class TestCaseGeneratorService {
                 .build();
     }
 
+    /**
+     * Suite name and test cases produced by the model, with the estimated prompt tokens spent on them
+     */
+    private record GenerationResult(String suiteName, List<TestCase> testCases, int estimatedPromptTokens) {
+    }
+
     /**
      * Map TestCase entity to DTO
      *
@@ -274,11 +1028,14 @@ public class TestCaseGeneratorService {
                 .method(testCase.getMethod())
                 .endpoint(testCase.getEndpoint())
                 .headers(testCase.getHeaders())
+                .excludeHeaders(testCase.getExcludeHeaders())
                 .body(testCase.getBody())
                 .expectedStatus(testCase.getExpectedStatus())
                 .expectedResponse(testCase.getExpectedResponse())
                 .validation(testCase.getValidation())
                 .category(testCase.getCategory())
+                .operation(testCase.getOperation())
+                .specIssues(testCase.getSpecIssues())
                 .createdAt(testCase.getCreatedAt())
                 .updatedAt(testCase.getUpdatedAt())
                 .build();
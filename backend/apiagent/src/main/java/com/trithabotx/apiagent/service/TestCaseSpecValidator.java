@@ -0,0 +1,366 @@
+package com.trithabotx.apiagent.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trithabotx.apiagent.model.TestCase;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Checks generated test cases against the specification they were
+ * generated from: the endpoint must match a documented path, the method
+ * must be documented for it and the body must fit the request schema.
+ * Cases expecting an error status are meant to break these rules, so only
+ * cases expecting success are held to them. Cosmetic mistakes such as
+ * method case, missing or doubled slashes and path case are repaired.
+ */
+@Component
+@RequiredArgsConstructor
+public class TestCaseSpecValidator {
+
+    public static final String POLICY_NONE = "none";
+    public static final String POLICY_FLAG = "flag";
+    public static final String POLICY_DROP = "drop";
+
+    private static final int MAX_SCHEMA_DEPTH = 5;
+
+    private final ApiSpecParser apiSpecParser;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Outcome of validating one test case
+     *
+     * @param issues    Problems left after repairs, empty if the test case is valid
+     * @param repaired  Whether the test case was modified
+     * @param operation Key of the operation the test case was matched to, null if none
+     */
+    public record Validation(List<String> issues, boolean repaired, String operation) {
+
+        public boolean isValid() {
+            return issues.isEmpty();
+        }
+    }
+
+    /**
+     * Index the operations of a specification for validation
+     *
+     * @param spec Parsed specification
+     * @return Index to validate test cases with
+     */
+    public SpecIndex index(JsonNode spec) {
+        List<PathTemplate> templates = new ArrayList<>();
+        for (ApiSpecParser.Operation operation : apiSpecParser.listOperations(spec)) {
+            PathTemplate template = templates.stream()
+                    .filter(existing -> existing.path().equals(operation.path()))
+                    .findFirst()
+                    .orElseGet(() -> {
+                        PathTemplate created = new PathTemplate(operation.path(), compile(operation.path()), new ArrayList<>());
+                        templates.add(created);
+                        return created;
+                    });
+            template.operations().add(operation);
+        }
+        return new SpecIndex(spec, templates, basePath(spec));
+    }
+
+    private record PathTemplate(String path, Pattern pattern, List<ApiSpecParser.Operation> operations) {
+    }
+
+    /**
+     * Operations of one specification, with the checks run against them
+     */
+    public class SpecIndex {
+
+        private final SpecRefResolver refs;
+        private final List<PathTemplate> templates;
+        private final String basePath;
+
+        private SpecIndex(JsonNode spec, List<PathTemplate> templates, String basePath) {
+            this.refs = new SpecRefResolver(spec);
+            this.templates = templates;
+            this.basePath = basePath;
+        }
+
+        /**
+         * Documented operations, one "METHOD path" line each, for prompts
+         */
+        public String describeOperations() {
+            StringBuilder description = new StringBuilder();
+            templates.forEach(template -> template.operations()
+                    .forEach(operation -> description.append(operation.key()).append('\n')));
+            return description.toString();
+        }
+
+        /**
+         * Repair a test case where possible and report the problems left
+         *
+         * @param testCase Test case, modified in place by repairs
+         * @return Validation outcome
+         */
+        public Validation validate(TestCase testCase) {
+            List<String> issues = new ArrayList<>();
+            boolean repaired = false;
+            boolean expectsSuccess = testCase.getExpectedStatus() < 400;
+
+            String method = testCase.getMethod() != null ? testCase.getMethod().trim().toUpperCase(Locale.ROOT) : "";
+            if (!method.equals(testCase.getMethod())) {
+                testCase.setMethod(method);
+                repaired = true;
+            }
+
+            String endpoint = testCase.getEndpoint() != null ? testCase.getEndpoint().trim() : "";
+            String query = "";
+            int queryStart = endpoint.indexOf('?');
+            if (queryStart >= 0) {
+                query = endpoint.substring(queryStart);
+                endpoint = endpoint.substring(0, queryStart);
+            }
+            String normalized = normalizePath(endpoint);
+
+            PathTemplate template = match(normalized);
+            if (template == null) {
+                // Paths are case sensitive, but a model often gets the case of a literal segment wrong
+                String recased = recase(normalized);
+                if (recased != null) {
+                    normalized = recased;
+                    template = match(normalized);
+                }
+            }
+            if (!(normalized + query).equals(testCase.getEndpoint()) && template != null) {
+                testCase.setEndpoint(normalized + query);
+                repaired = true;
+            }
+
+            if (template == null) {
+                if (expectsSuccess) {
+                    issues.add("Endpoint " + testCase.getEndpoint() + " is not defined in the specification");
+                }
+                return new Validation(issues, repaired, null);
+            }
+
+            ApiSpecParser.Operation operation = template.operations().stream()
+                    .filter(candidate -> candidate.method().equals(method))
+                    .findFirst()
+                    .orElse(null);
+            if (operation == null) {
+                if (expectsSuccess) {
+                    issues.add("Method " + method + " is not defined for " + template.path());
+                }
+                return new Validation(issues, repaired, null);
+            }
+
+            if (expectsSuccess) {
+                checkBody(testCase, operation, issues);
+            }
+            return new Validation(issues, repaired, operation.key());
+        }
+
+        /**
+         * Find the operation a test case exercises, without repairing it
+         *
+         * @param testCase Test case
+         * @return Operation key, or null if the endpoint and method match no operation
+         */
+        public String operationOf(TestCase testCase) {
+            String endpoint = testCase.getEndpoint() != null ? testCase.getEndpoint().trim() : "";
+            int queryStart = endpoint.indexOf('?');
+            if (queryStart >= 0) {
+                endpoint = endpoint.substring(0, queryStart);
+            }
+            PathTemplate template = match(normalizePath(endpoint));
+            if (template == null || testCase.getMethod() == null) {
+                return null;
+            }
+            return template.operations().stream()
+                    .filter(operation -> operation.method().equalsIgnoreCase(testCase.getMethod().trim()))
+                    .map(ApiSpecParser.Operation::key)
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        /**
+         * Check the body of a test case expecting success against the request schema of its operation
+         */
+        private void checkBody(TestCase testCase, ApiSpecParser.Operation operation, List<String> issues) {
+            JsonNode requestBody = resolve(operation.definition().path("requestBody"));
+            JsonNode schema = requestBody.path("content").path("application/json").path("schema");
+            boolean required = requestBody.path("required").asBoolean(false);
+
+            // Swagger 2 declares the body as a parameter
+            for (JsonNode parameter : operation.definition().path("parameters")) {
+                JsonNode resolved = resolve(parameter);
+                if ("body".equals(resolved.path("in").asText())) {
+                    schema = resolved.path("schema");
+                    required = resolved.path("required").asBoolean(false);
+                }
+            }
+
+            if (testCase.getBody() == null) {
+                if (required) {
+                    issues.add("Request body is required by " + operation.key());
+                }
+                return;
+            }
+            if (!schema.isMissingNode() && !(testCase.getBody() instanceof String)) {
+                checkSchema(objectMapper.valueToTree(testCase.getBody()), schema, "body", issues, 0);
+            }
+        }
+
+        /**
+         * Check a value against the type, required, properties, items and enum keywords of a schema
+         */
+        private void checkSchema(JsonNode value, JsonNode schema, String location, List<String> issues, int depth) {
+            schema = resolve(schema);
+            if (depth > MAX_SCHEMA_DEPTH || value == null || value.isNull()) {
+                return;
+            }
+            for (JsonNode part : schema.path("allOf")) {
+                checkSchema(value, part, location, issues, depth + 1);
+            }
+
+            String type = schema.path("type").asText("");
+            boolean typeMatches = switch (type) {
+                case "object" -> value.isObject();
+                case "array" -> value.isArray();
+                case "string" -> value.isTextual();
+                case "integer" -> value.isIntegralNumber();
+                case "number" -> value.isNumber();
+                case "boolean" -> value.isBoolean();
+                default -> true;
+            };
+            if (!typeMatches) {
+                issues.add(location + " should be of type " + type);
+                return;
+            }
+
+            if (schema.path("enum").isArray() && !schema.path("enum").isEmpty()) {
+                boolean allowed = false;
+                for (JsonNode option : schema.path("enum")) {
+                    allowed |= option.equals(value);
+                }
+                if (!allowed) {
+                    issues.add(location + " is not one of the allowed values " + schema.path("enum"));
+                }
+            }
+
+            if (value.isObject()) {
+                for (JsonNode name : schema.path("required")) {
+                    if (!value.has(name.asText())) {
+                        issues.add(location + " is missing required property " + name.asText());
+                    }
+                }
+                schema.path("properties").fields().forEachRemaining(property -> {
+                    if (value.has(property.getKey())) {
+                        checkSchema(value.get(property.getKey()), property.getValue(),
+                                location + "." + property.getKey(), issues, depth + 1);
+                    }
+                });
+            } else if (value.isArray() && schema.has("items")) {
+                for (int i = 0; i < value.size(); i++) {
+                    checkSchema(value.get(i), schema.get("items"), location + "[" + i + "]", issues, depth + 1);
+                }
+            }
+        }
+
+        private JsonNode resolve(JsonNode node) {
+            return refs.follow(node);
+        }
+
+        private PathTemplate match(String endpoint) {
+            for (String candidate : candidates(endpoint)) {
+                // Prefer literal paths over templates, e.g. /pets/mine over /pets/{id}
+                PathTemplate literal = templates.stream()
+                        .filter(template -> template.path().equals(candidate))
+                        .findFirst()
+                        .orElse(null);
+                if (literal != null) {
+                    return literal;
+                }
+                for (PathTemplate template : templates) {
+                    if (template.pattern().matcher(candidate).matches()) {
+                        return template;
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Replace literal segments that match a template only when ignoring case
+         */
+        private String recase(String endpoint) {
+            for (String candidate : candidates(endpoint)) {
+                String prefix = endpoint.substring(0, endpoint.length() - candidate.length());
+                String[] segments = candidate.split("/", -1);
+                for (PathTemplate template : templates) {
+                    String[] templateSegments = template.path().split("/", -1);
+                    if (templateSegments.length != segments.length) {
+                        continue;
+                    }
+                    StringBuilder rebuilt = new StringBuilder();
+                    boolean matches = true;
+                    for (int i = 0; i < segments.length && matches; i++) {
+                        boolean variable = templateSegments[i].startsWith("{");
+                        matches = variable || templateSegments[i].equalsIgnoreCase(segments[i]);
+                        rebuilt.append(i > 0 ? "/" : "").append(variable ? segments[i] : templateSegments[i]);
+                    }
+                    if (matches) {
+                        return prefix + rebuilt;
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * The endpoint as given and without the base path of the specification's server
+         */
+        private List<String> candidates(String endpoint) {
+            if (!basePath.isEmpty() && endpoint.startsWith(basePath + "/")) {
+                return List.of(endpoint, endpoint.substring(basePath.length()));
+            }
+            return List.of(endpoint);
+        }
+    }
+
+    /**
+     * Path of an endpoint with a leading slash, no doubled slashes and no trailing slash
+     *
+     * @param path Endpoint without its query string
+     * @return Normalized path
+     */
+    private static String normalizePath(String path) {
+        String normalized = ("/" + path).replaceAll("/{2,}", "/");
+        if (normalized.length() > 1 && normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+    private static Pattern compile(String path) {
+        StringBuilder regex = new StringBuilder();
+        for (String part : path.split("(?=\\{)|(?<=\\})")) {
+            regex.append(part.startsWith("{") && part.endsWith("}") ? "[^/]+" : Pattern.quote(part));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static String basePath(JsonNode spec) {
+        String basePath = spec.path("basePath").asText("");
+        if (basePath.isEmpty() && spec.path("servers").isArray() && !spec.path("servers").isEmpty()) {
+            try {
+                String path = URI.create(spec.path("servers").get(0).path("url").asText("")).getPath();
+                basePath = path != null ? path : "";
+            } catch (IllegalArgumentException e) {
+                basePath = "";
+            }
+        }
+        return basePath.endsWith("/") ? basePath.substring(0, basePath.length() - 1) : basePath;
+    }
+}
@@ -0,0 +1,171 @@
+package com.trithabotx.apiagent.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Incrementally extracts test case objects from a streamed LLM completion.
+ * Chunks of text are fed as they arrive; every object of the
+ * {@code testCases} array is returned as soon as its closing brace has been
+ * received, without waiting for the rest of the document.
+ * Instances are not thread safe and are meant to be used for one stream.
+ */
+public class TestCaseStreamParser {
+
+    private static final String TEST_CASES_KEY = "\"testCases\"";
+    private static final String THINK_START = "<think>";
+    private static final String THINK_END = "</think>";
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final Pattern SUITE_NAME = Pattern.compile("\"name\"\\s*:\\s*\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    private final StringBuilder buffer = new StringBuilder();
+    private boolean inArray;
+    private boolean finished;
+    private int position;
+    private int depth;
+    private int objectStart = -1;
+    private boolean inString;
+    private boolean escaped;
+    private String suiteName;
+
+    /**
+     * Feed the next chunk of the completion
+     *
+     * @param chunk Text received from the model
+     * @return JSON text of every test case object completed by this chunk
+     */
+    public List<String> feed(String chunk) {
+        List<String> completed = new ArrayList<>();
+        if (finished || chunk == null || chunk.isEmpty()) {
+            return completed;
+        }
+        buffer.append(chunk);
+
+        if (!inArray && !seekArrayStart()) {
+            return completed;
+        }
+
+        for (; position < buffer.length() && !finished; position++) {
+            char c = buffer.charAt(position);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> inString = true;
+                case '{' -> {
+                    if (depth == 0) {
+                        objectStart = position;
+                    }
+                    depth++;
+                }
+                case '}' -> {
+                    depth--;
+                    if (depth == 0 && objectStart >= 0) {
+                        completed.add(buffer.substring(objectStart, position + 1));
+                        objectStart = -1;
+                    }
+                }
+                case ']' -> {
+                    if (depth == 0) {
+                        finished = true;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        compact();
+        return completed;
+    }
+
+    /**
+     * Suite name found before the test case array, or null
+     */
+    public String getSuiteName() {
+        return suiteName;
+    }
+
+    /**
+     * True once the closing bracket of the test case array has been seen
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Look for the opening bracket of the test case array, skipping a leading reasoning block
+     *
+     * @return True if the array has been found
+     */
+    private boolean seekArrayStart() {
+        int from = 0;
+        int thinkStart = buffer.indexOf(THINK_START);
+        if (thinkStart >= 0) {
+            int thinkEnd = buffer.indexOf(THINK_END, thinkStart);
+            if (thinkEnd < 0) {
+                return false;
+            }
+            from = thinkEnd + THINK_END.length();
+        }
+
+        int keyIndex = buffer.indexOf(TEST_CASES_KEY, from);
+        if (keyIndex < 0) {
+            return false;
+        }
+        int arrayStart = buffer.indexOf("[", keyIndex + TEST_CASES_KEY.length());
+        if (arrayStart < 0) {
+            return false;
+        }
+
+        Matcher matcher = SUITE_NAME.matcher(buffer.substring(from, keyIndex));
+        if (matcher.find()) {
+            suiteName = decode(matcher.group(1));
+        }
+
+        inArray = true;
+        position = arrayStart + 1;
+        return true;
+    }
+
+    /**
+     * Decode the escapes of a JSON string literal's content
+     *
+     * @param literal Content of the literal, without the quotes
+     * @return Decoded string, or the content as is if it is not valid JSON
+     */
+    private static String decode(String literal) {
+        try {
+            return JSON.readValue("\"" + literal + "\"", String.class);
+        } catch (JsonProcessingException e) {
+            return literal;
+        }
+    }
+
+    /**
+     * Drop text that can no longer be part of a test case object
+     */
+    private void compact() {
+        int keepFrom = objectStart >= 0 ? objectStart : position;
+        if (keepFrom > 0) {
+            buffer.delete(0, keepFrom);
+            position -= keepFrom;
+            if (objectStart >= 0) {
+                objectStart = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.trithabotx.apiagent.service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the request timeout of each test case in a test run and keeps
+ * track of the overall run deadline. Timeouts handed out are never longer
+ * than the time left until the deadline.
+ */
+public class TimeoutPolicy {
+
+    private final int defaultTimeout;
+    private final Map<String, Integer> testCaseTimeouts;
+    private final long deadline;
+
+    /**
+     * @param defaultTimeout   Timeout for test cases without a computed timeout, in milliseconds
+     * @param testCaseTimeouts Computed timeouts by test case ID, in milliseconds
+     * @param runDeadline      Budget for the whole run in milliseconds, or null for no deadline
+     */
+    public TimeoutPolicy(int defaultTimeout, Map<String, Integer> testCaseTimeouts, Integer runDeadline) {
+        this.defaultTimeout = defaultTimeout;
+        this.testCaseTimeouts = testCaseTimeouts != null ? testCaseTimeouts : Collections.emptyMap();
+        this.deadline = runDeadline != null && runDeadline > 0
+                ? System.currentTimeMillis() + runDeadline
+                : Long.MAX_VALUE;
+    }
+
+    /**
+     * Adaptive timeout of a test case: a nearest-rank percentile of its recent
+     * durations times a safety factor, kept within the configured bounds
+     *
+     * @param durations    Recent durations of the test case in milliseconds, at least one
+     * @param percentile   Percentile of the durations, 0 to 100
+     * @param safetyFactor Factor applied to the percentile duration
+     * @param minTimeout   Lower bound in milliseconds
+     * @param maxTimeout   Upper bound in milliseconds
+     * @return Timeout in milliseconds
+     */
+    public static int adaptiveTimeout(List<Long> durations, double percentile, double safetyFactor,
+                                      int minTimeout, int maxTimeout) {
+        List<Long> sorted = durations.stream().sorted().toList();
+        int rank = (int) Math.ceil(percentile / 100 * sorted.size());
+        long percentileDuration = sorted.get(Math.max(0, Math.min(rank, sorted.size()) - 1));
+        long timeout = (long) Math.ceil(percentileDuration * safetyFactor);
+        return (int) Math.max(minTimeout, Math.min(timeout, maxTimeout));
+    }
+
+    /**
+     * Timeout for the next request of a test case
+     *
+     * @param testCaseId Test case ID
+     * @return Timeout in milliseconds, 0 if the run deadline has passed
+     */
+    public int timeoutFor(String testCaseId) {
+        int timeout = testCaseTimeouts.getOrDefault(testCaseId, defaultTimeout);
+        return (int) Math.max(0, Math.min(timeout, remainingBudget()));
+    }
+
+    /**
+     * Milliseconds left until the run deadline
+     */
+    public long remainingBudget() {
+        return deadline - System.currentTimeMillis();
+    }
+
+    public boolean isDeadlineExceeded() {
+        return remainingBudget() <= 0;
+    }
+}
@@ -0,0 +1,170 @@
+package com.trithabotx.apiagent.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trithabotx.apiagent.model.TestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BaselineTestCaseGeneratorTests {
+
+	private static final String SPEC = """
+			{
+			  "openapi": "3.0.0",
+			  "security": [{"bearer": []}],
+			  "components": {
+			    "securitySchemes": {
+			      "bearer": {"type": "http", "scheme": "bearer"},
+			      "key": {"type": "apiKey", "in": "header", "name": "X-Api-Key"}
+			    },
+			    "schemas": {
+			      "NewPet": {
+			        "type": "object",
+			        "required": ["name"],
+			        "properties": {
+			          "name": {"type": "string", "maxLength": 5},
+			          "age": {"type": "integer", "minimum": 1},
+			          "owner": {"$ref": "#/components/schemas/Owner"}
+			        }
+			      },
+			      "Owner": {
+			        "type": "object",
+			        "required": ["email"],
+			        "properties": {"email": {"type": "string", "format": "email"}, "phone": {"type": "string"}}
+			      },
+			      "Pet": {
+			        "allOf": [
+			          {"$ref": "#/components/schemas/NewPet"},
+			          {"type": "object", "properties": {"id": {"type": "string", "format": "uuid"}}}
+			        ]
+			      }
+			    }
+			  },
+			  "paths": {
+			    "/pets": {
+			      "post": {
+			        "requestBody": {"required": true, "content": {"application/json": {"schema": {"$ref": "#/components/schemas/NewPet"}}}},
+			        "responses": {"201": {"description": "Created"}, "401": {"description": "Unauthorized"}}
+			      },
+			      "put": {
+			        "security": [],
+			        "requestBody": {"content": {"application/json": {"schema": {"$ref": "#/components/schemas/Pet"}}}},
+			        "responses": {"200": {"description": "OK"}, "401": {"description": "Unauthorized"}}
+			      }
+			    }
+			  }
+			}
+			""";
+
+	private static final String EXCLUSIVE_LIMITS_SPEC = """
+			{
+			  "openapi": "3.1.0",
+			  "paths": {
+			    "/pets": {
+			      "post": {
+			        "requestBody": {"content": {"application/json": {"schema": {
+			          "type": "object",
+			          "properties": {
+			            "legs": {"type": "integer", "minimum": 0, "maximum": 4, "exclusiveMaximum": true},
+			            "weight": {"type": "number", "exclusiveMinimum": 0, "exclusiveMaximum": 10}
+			          }
+			        }}}},
+			        "responses": {"201": {"description": "Created"}, "400": {"description": "Bad Request"}}
+			      }
+			    }
+			  }
+			}
+			""";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final BaselineTestCaseGenerator generator =
+			new BaselineTestCaseGenerator(new ApiSpecParser(objectMapper), objectMapper);
+
+	private List<TestCase> generate() throws Exception {
+		return generate(SPEC);
+	}
+
+	private List<TestCase> generate(String specText) throws Exception {
+		JsonNode spec = objectMapper.readTree(specText);
+		return generator.generate(spec);
+	}
+
+	private static TestCase named(List<TestCase> testCases, String name) {
+		return testCases.stream()
+				.filter(testCase -> testCase.getName().equals(name))
+				.findFirst()
+				.orElseThrow(() -> new AssertionError("No test case named " + name));
+	}
+
+	@Test
+	void samplesBodiesThroughRefsAndAllOf() throws Exception {
+		List<TestCase> testCases = generate();
+
+		Map<?, ?> created = (Map<?, ?>) named(testCases, "POST /pets returns 201").getBody();
+		assertEquals("strin", created.get("name"));
+		assertEquals(1L, ((Number) created.get("age")).longValue());
+		// Nested objects only get their required properties
+		assertEquals(Map.of("email", "user@example.com"), created.get("owner"));
+
+		Map<?, ?> replaced = (Map<?, ?>) named(testCases, "PUT /pets returns 200").getBody();
+		assertEquals("123e4567-e89b-12d3-a456-426614174000", replaced.get("id"));
+		assertTrue(replaced.containsKey("name"));
+	}
+
+	@Test
+	void generatesCasesOnAndOutsideTheLimits() throws Exception {
+		List<TestCase> testCases = generate();
+
+		TestCase atMaximum = named(testCases, "POST /pets with name at its maximum length returns 201");
+		assertEquals("xxxxx", ((Map<?, ?>) atMaximum.getBody()).get("name"));
+		TestCase overMaximum = named(testCases, "POST /pets with name over its maximum length returns 400");
+		assertEquals("xxxxxx", ((Map<?, ?>) overMaximum.getBody()).get("name"));
+		TestCase underMinimum = named(testCases, "POST /pets with age under its minimum returns 400");
+		assertEquals(0L, ((Number) ((Map<?, ?>) underMinimum.getBody()).get("age")).longValue());
+
+		TestCase missingField = named(testCases, "POST /pets without required field name is rejected");
+		assertFalse(((Map<?, ?>) missingField.getBody()).containsKey("name"));
+		assertEquals(400, named(testCases, "POST /pets without a body is rejected").getExpectedStatus());
+	}
+
+	@Test
+	void keepsValuesInsideExclusiveLimits() throws Exception {
+		List<TestCase> testCases = generate(EXCLUSIVE_LIMITS_SPEC);
+
+		// OpenAPI 3.0 boolean form
+		TestCase underLegs = named(testCases, "POST /pets with legs just under its exclusive maximum returns 201");
+		assertEquals(3L, ((Map<?, ?>) underLegs.getBody()).get("legs"));
+		TestCase atLegs = named(testCases, "POST /pets with legs at its exclusive maximum returns 400");
+		assertEquals(4L, ((Map<?, ?>) atLegs.getBody()).get("legs"));
+
+		// OpenAPI 3.1 numeric form
+		assertEquals(0.0, ((Map<?, ?>) named(testCases, "POST /pets with weight at its exclusive minimum returns 400")
+				.getBody()).get("weight"));
+		assertEquals(10.0, ((Map<?, ?>) named(testCases, "POST /pets with weight at its exclusive maximum returns 400")
+				.getBody()).get("weight"));
+		assertEquals(9.0, ((Map<?, ?>) named(testCases, "POST /pets with weight just under its exclusive maximum returns 201")
+				.getBody()).get("weight"));
+
+		// The positive case sends a value inside the range
+		Map<?, ?> created = (Map<?, ?>) named(testCases, "POST /pets returns 201").getBody();
+		assertEquals(1.0, created.get("weight"));
+		assertEquals(0L, created.get("legs"));
+	}
+
+	@Test
+	void sendsTheUnauthorizedCaseWithoutCredentialHeaders() throws Exception {
+		List<TestCase> testCases = generate();
+
+		TestCase unauthorized = named(testCases, "POST /pets without credentials returns 401");
+		assertTrue(unauthorized.getExcludeHeaders().contains("Authorization"));
+		assertTrue(unauthorized.getExcludeHeaders().contains("X-Api-Key"));
+		// An empty security requirement makes the operation public
+		assertTrue(testCases.stream().noneMatch(testCase -> testCase.getName().equals("PUT /pets without credentials returns 401")));
+	}
+}
@@ -0,0 +1,61 @@
+package com.trithabotx.apiagent.service;
+
+import com.trithabotx.apiagent.model.FailureCluster;
+import com.trithabotx.apiagent.model.TestCase;
+import com.trithabotx.apiagent.model.TestResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FailureClustererTests {
+
+	private final FailureClusterer clusterer = new FailureClusterer();
+
+	private static TestResult failure(String testCaseId, String url, int status, String error) {
+		return TestResult.builder()
+				.testCaseId(testCaseId)
+				.status("failed")
+				.requestMethod("GET")
+				.requestUrl(url)
+				.responseStatus(status)
+				.validationErrors(List.of(error))
+				.build();
+	}
+
+	@Test
+	void groupsFailuresThatDifferOnlyInIdsAndNumbers() {
+		List<TestResult> results = List.of(
+				failure("a", "http://api/pets/12?verbose=true", 500, "Expected status 200 but got 500 for pet 12"),
+				failure("b", "http://api/pets/7", 500, "Expected status 200 but got 500 for pet 7"),
+				failure("c", "http://api/pets/3f2b1c9a-8d4e-4f6a-9b7c-1e2d3c4b5a69", 500,
+						"Expected status 200 but got 500 for pet 99"),
+				failure("d", "http://api/pets/7", 404, "Expected status 200 but got 404"),
+				TestResult.builder().testCaseId("e").status("passed").build());
+
+		List<FailureCluster> clusters = clusterer.cluster(results, Map.of());
+
+		assertEquals(2, clusters.size());
+		assertEquals(3, clusters.get(0).getCount());
+		assertEquals("/pets/{id}", clusters.get(0).getEndpoint());
+		assertEquals(List.of("Expected status # but got # for pet #"), clusters.get(0).getErrors());
+		assertEquals(1, clusters.get(1).getCount());
+	}
+
+	@Test
+	void usesTheOperationOfTheTestCaseAsEndpointTemplate() {
+		TestCase testCase = TestCase.builder().id("a").name("Get pet").operation("GET /pets/{petId}").build();
+
+		List<FailureCluster> clusters = clusterer.cluster(
+				List.of(failure("a", "http://api/pets/rex", 500, "boom"), failure("b", "http://api/pets/12", 500, "boom")),
+				Map.of("a", testCase));
+
+		// Same failure on the same endpoint, with and without a known operation
+		assertEquals(1, clusters.size());
+		assertEquals(2, clusters.get(0).getCount());
+		assertEquals("/pets/{id}", clusters.get(0).getEndpoint());
+		assertEquals("Get pet", clusters.get(0).getTestName());
+	}
+}
@@ -0,0 +1,50 @@
+package com.trithabotx.apiagent.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LlmJsonExtractorTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final LlmJsonExtractor extractor = new LlmJsonExtractor(objectMapper);
+
+	private static final String COMPLETION = """
+			<think>The suite should look like {"testSuite": {}} and use /pets/{id}</think>
+			Here is the suite for /pets/{id}:
+			```json
+			{"testSuite": {"name": "Pets", "testCases": [
+			  {"name": "Get pet", "method": "GET", "endpoint": "/pets/{id}", "validation": ["a } b"]},
+			  {"name": "Create pet", "method": "POST", "endpoint": "/pets", "body": {"name": "Rex"}}
+			]}}
+			```
+			Let me know if you need more tests {or changes}.
+			""";
+
+	@Test
+	void extractsFirstCompleteObjectIgnoringReasoningAndProse() throws Exception {
+		JsonNode suite = objectMapper.readTree(extractor.extract(COMPLETION)).path("testSuite");
+
+		assertEquals("Pets", suite.path("name").asText());
+		assertEquals(2, suite.path("testCases").size());
+		assertEquals("a } b", suite.path("testCases").get(0).path("validation").get(0).asText());
+	}
+
+	@Test
+	void recoversCompleteTestCasesOfTruncatedOutput() throws Exception {
+		String truncated = COMPLETION.substring(0, COMPLETION.indexOf("\"Rex\""));
+
+		JsonNode suite = objectMapper.readTree(extractor.extract(truncated)).path("testSuite");
+
+		assertEquals("Pets", suite.path("name").asText());
+		assertEquals(1, suite.path("testCases").size());
+		assertEquals("Get pet", suite.path("testCases").get(0).path("name").asText());
+	}
+
+	@Test
+	void returnsResponseWithoutJsonUnchanged() {
+		assertEquals("No tests today", extractor.extract("No tests today"));
+	}
+}
@@ -0,0 +1,42 @@
+package com.trithabotx.apiagent.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class RequestFingerprinterTests {
+
+	private final RequestFingerprinter fingerprinter = new RequestFingerprinter(new ObjectMapper());
+
+	@Test
+	void ignoresCredentialValuesInRecordingFingerprints() {
+		Map<String, Object> body = Map.of("name", "Rex");
+		String recorded = fingerprinter.recordingFingerprint("POST", "/pets",
+				Map.of("Authorization", "Bearer old", "Cookie", "session=1", "Accept", "application/json"), body);
+		String rotated = fingerprinter.recordingFingerprint("post", "/pets",
+				Map.of("accept", "application/json", "cookie", "session=2", "authorization", "Bearer new"), body);
+
+		assertEquals(recorded, rotated);
+
+		// Presence of a credential header still counts
+		assertNotEquals(recorded, fingerprinter.recordingFingerprint("POST", "/pets",
+				Map.of("Cookie", "session=1", "Accept", "application/json"), body));
+		// So do the values of other headers
+		assertNotEquals(recorded, fingerprinter.recordingFingerprint("POST", "/pets",
+				Map.of("Authorization", "Bearer old", "Cookie", "session=1", "Accept", "text/plain"), body));
+	}
+
+	@Test
+	void keepsCredentialValuesInRequestFingerprints() {
+		assertNotEquals(
+				fingerprinter.fingerprint("GET", "/pets", Map.of("Authorization", "Bearer a"), null),
+				fingerprinter.fingerprint("GET", "/pets", Map.of("Authorization", "Bearer b"), null));
+		assertEquals(
+				fingerprinter.fingerprint("GET", "/pets", null, Map.of("b", 2, "a", 1)),
+				fingerprinter.fingerprint("GET", "/pets", null, Map.of("a", 1, "b", 2)));
+	}
+}
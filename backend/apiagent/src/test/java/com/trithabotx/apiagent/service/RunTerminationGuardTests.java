@@ -0,0 +1,67 @@
+package com.trithabotx.apiagent.service;
+
+import com.trithabotx.apiagent.model.TestResult;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunTerminationGuardTests {
+
+	private static TestResult result(String status) {
+		return TestResult.builder().status(status).responseStatus(200).build();
+	}
+
+	@Test
+	void evaluatesTheFailureRateOnlyAfterTheMinimumSamples() {
+		RunTerminationGuard guard = new RunTerminationGuard(0, null, 50.0, 4);
+
+		// 100% failed, but too few results to judge the rate
+		guard.recordResult(result("failed"));
+		guard.recordResult(result("failed"));
+		guard.recordResult(result("passed"));
+		assertFalse(guard.isTerminated());
+
+		// 3 of 4 failed
+		guard.recordResult(result("failed"));
+		assertTrue(guard.isTerminated());
+		assertEquals("Stopped after failure rate reached 75.00%", guard.getTerminationReason());
+	}
+
+	@Test
+	void keepsRunningBelowTheFailureRate() {
+		RunTerminationGuard guard = new RunTerminationGuard(0, null, 50.0, 2);
+
+		guard.recordResult(result("passed"));
+		guard.recordResult(result("passed"));
+		guard.recordResult(result("failed"));
+
+		assertNull(guard.getTerminationReason());
+	}
+
+	@Test
+	void stopsAfterTheMaximumFailures() {
+		RunTerminationGuard guard = new RunTerminationGuard(0, 2, null, 0);
+
+		guard.recordResult(result("failed"));
+		assertFalse(guard.isTerminated());
+		guard.recordResult(result("failed"));
+
+		assertEquals("Stopped after 2 failed test cases", guard.getTerminationReason());
+	}
+
+	@Test
+	void opensTheCircuitBreakerOnConsecutiveConnectionFailures() {
+		RunTerminationGuard guard = new RunTerminationGuard(2, null, null, 0);
+
+		guard.recordConnectionFailure();
+		guard.recordResult(result("passed"));
+		guard.recordConnectionFailure();
+		assertFalse(guard.isTerminated());
+
+		guard.recordConnectionFailure();
+		assertTrue(guard.isTerminated());
+	}
+}
@@ -0,0 +1,73 @@
+package com.trithabotx.apiagent.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trithabotx.apiagent.model.TestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TestCaseDeduplicatorTests {
+
+	private final TestCaseDeduplicator deduplicator =
+			new TestCaseDeduplicator(new RequestFingerprinter(new ObjectMapper()));
+
+	private static TestCase testCase(String name, String method, String endpoint, Map<String, String> headers,
+									 Object body, int expectedStatus) {
+		return TestCase.builder()
+				.name(name)
+				.method(method)
+				.endpoint(endpoint)
+				.headers(headers)
+				.body(body)
+				.expectedStatus(expectedStatus)
+				.build();
+	}
+
+	@Test
+	void dropsCasesSendingTheSameRequest() {
+		TestCase first = testCase("Create a pet", "POST", "/pets",
+				Map.of("Content-Type", "application/json"), Map.of("name", "Rex", "age", 3), 201);
+		TestCase reworded = testCase("Creates a new pet", "post", "/pets/",
+				Map.of("content-type", "application/json"), Map.of("age", 3, "name", "Rex"), 201);
+		TestCase otherStatus = testCase("Create a pet twice", "POST", "/pets",
+				Map.of("Content-Type", "application/json"), Map.of("name", "Rex", "age", 3), 409);
+
+		List<TestCase> distinct = deduplicator.deduplicate(List.of(first, reworded, otherStatus));
+
+		assertEquals(2, distinct.size());
+		assertSame(first, distinct.get(0));
+		assertSame(otherStatus, distinct.get(1));
+	}
+
+	@Test
+	void mergesTheValidationAndExpectedResponseOfADuplicate() {
+		TestCase kept = testCase("Get a pet", "GET", "/pets/1", null, null, 200);
+		kept.setValidation(List.of("Response has an id"));
+		kept.setExpectedResponse(Map.of("id", 1));
+		TestCase duplicate = testCase("Fetch a pet", "GET", "/pets/1", null, null, 200);
+		duplicate.setValidation(List.of("response  has an ID", "Response has a name"));
+		duplicate.setExpectedResponse(Map.of("id", 2, "name", "Rex"));
+
+		deduplicator.merge(kept, duplicate);
+
+		assertEquals(List.of("Response has an id", "Response has a name"), kept.getValidation());
+		assertEquals(Map.of("id", 1, "name", "Rex"), kept.getExpectedResponse());
+	}
+
+	@Test
+	void takesTheExpectedResponseOfADuplicateWhenTheKeptCaseHasNone() {
+		TestCase kept = testCase("Delete a pet", "DELETE", "/pets/1", null, null, 404);
+		TestCase duplicate = testCase("Delete a missing pet", "DELETE", "/pets/1", null, null, 404);
+		duplicate.setExpectedResponse(Map.of("error", "Not found"));
+		duplicate.setValidation(List.of("Response has an error message"));
+
+		deduplicator.merge(kept, duplicate);
+
+		assertEquals(Map.of("error", "Not found"), kept.getExpectedResponse());
+		assertEquals(List.of("Response has an error message"), kept.getValidation());
+	}
+}
@@ -0,0 +1,62 @@
+package com.trithabotx.apiagent.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trithabotx.apiagent.model.TestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TestCaseGeneratorServiceTests {
+
+	private static final String SPEC = """
+			{
+			  "openapi": "3.0.0",
+			  "paths": {
+			    "/pets/{petId}": {
+			      "get": {"responses": {"200": {"description": "OK"}}},
+			      "delete": {"responses": {"204": {"description": "Deleted"}}}
+			    },
+			    "/pets/mine": {"get": {"responses": {"200": {"description": "OK"}}}}
+			  }
+			}
+			""";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final TestCaseSpecValidator validator =
+			new TestCaseSpecValidator(new ApiSpecParser(objectMapper), objectMapper);
+
+	private TestCaseSpecValidator.SpecIndex index() throws Exception {
+		return validator.index(objectMapper.readTree(SPEC));
+	}
+
+	private static TestCase generated() {
+		return TestCase.builder()
+				.name("Get a pet")
+				.operation("GET /pets/{petId}")
+				.method("GET")
+				.endpoint("/pets/12")
+				.expectedStatus(200)
+				.build();
+	}
+
+	@Test
+	void reResolvesTheOperationOfAnEditedRequest() throws Exception {
+		TestCase editedMethod = generated();
+		TestCaseGeneratorService.applyUpdates(editedMethod, Map.of("method", "DELETE", "expectedStatus", 204));
+		assertEquals("DELETE /pets/{petId}", TestCaseGeneratorService.operationOf(editedMethod, index()));
+
+		TestCase editedEndpoint = generated();
+		TestCaseGeneratorService.applyUpdates(editedEndpoint, Map.of("endpoint", "/pets/mine"));
+		assertEquals("GET /pets/mine", TestCaseGeneratorService.operationOf(editedEndpoint, index()));
+	}
+
+	@Test
+	void keepsTheStoredOperationOfOtherEdits() throws Exception {
+		TestCase renamed = generated();
+		renamed.setEndpoint("/pets/mine");
+		TestCaseGeneratorService.applyUpdates(renamed, Map.of("name", "Get my pet"));
+		assertEquals("GET /pets/{petId}", TestCaseGeneratorService.operationOf(renamed, index()));
+	}
+}
@@ -0,0 +1,93 @@
+package com.trithabotx.apiagent.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trithabotx.apiagent.model.TestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestCaseSpecValidatorTests {
+
+	private static final String SPEC = """
+			{
+			  "openapi": "3.0.0",
+			  "servers": [{"url": "https://api.example.com/v1"}],
+			  "components": {
+			    "schemas": {
+			      "Named": {"type": "object", "required": ["name"], "properties": {"name": {"type": "string"}}},
+			      "Pet": {
+			        "allOf": [
+			          {"$ref": "#/components/schemas/Named"},
+			          {"type": "object", "properties": {"kind": {"type": "string", "enum": ["cat", "dog"]}}}
+			        ]
+			      }
+			    }
+			  },
+			  "paths": {
+			    "/pets": {
+			      "post": {
+			        "requestBody": {"required": true, "content": {"application/json": {"schema": {"$ref": "#/components/schemas/Pet"}}}},
+			        "responses": {"201": {"description": "Created"}}
+			      }
+			    },
+			    "/pets/{petId}": {"get": {"responses": {"200": {"description": "OK"}}}},
+			    "/pets/mine": {"get": {"responses": {"200": {"description": "OK"}}}}
+			  }
+			}
+			""";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final TestCaseSpecValidator validator =
+			new TestCaseSpecValidator(new ApiSpecParser(objectMapper), objectMapper);
+
+	private TestCaseSpecValidator.SpecIndex index() throws Exception {
+		return validator.index(objectMapper.readTree(SPEC));
+	}
+
+	private static TestCase testCase(String method, String endpoint, Object body, int expectedStatus) {
+		return TestCase.builder().method(method).endpoint(endpoint).body(body).expectedStatus(expectedStatus).build();
+	}
+
+	@Test
+	void repairsCosmeticMistakes() throws Exception {
+		TestCase testCase = testCase(" get", "v1//PETS/12/?verbose=true", null, 200);
+
+		TestCaseSpecValidator.Validation validation = index().validate(testCase);
+
+		assertTrue(validation.isValid());
+		assertTrue(validation.repaired());
+		assertEquals("GET", testCase.getMethod());
+		assertEquals("/v1/pets/12?verbose=true", testCase.getEndpoint());
+		assertEquals("GET /pets/{petId}", validation.operation());
+		// Literal paths win over templates
+		assertEquals("GET /pets/mine", index().operationOf(testCase("GET", "/pets/mine", null, 200)));
+	}
+
+	@Test
+	void checksBodiesAgainstReferencedSchemas() throws Exception {
+		TestCaseSpecValidator.Validation validation = index().validate(
+				testCase("POST", "/pets", Map.of("kind", "bird"), 201));
+
+		assertEquals(List.of("body is missing required property name", "body.kind is not one of the allowed values [\"cat\",\"dog\"]"),
+				validation.issues());
+		assertEquals("POST /pets", validation.operation());
+	}
+
+	@Test
+	void holdsOnlyCasesExpectingSuccessToTheSpecification() throws Exception {
+		TestCaseSpecValidator.SpecIndex index = index();
+
+		TestCaseSpecValidator.Validation undocumented = index.validate(testCase("DELETE", "/pets", null, 200));
+		assertFalse(undocumented.isValid());
+		assertNull(undocumented.operation());
+
+		assertTrue(index.validate(testCase("POST", "/pets", null, 400)).isValid());
+		assertTrue(index.validate(testCase("GET", "/owners", null, 404)).isValid());
+	}
+}
@@ -0,0 +1,50 @@
+package com.trithabotx.apiagent.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestCaseStreamParserTests {
+
+	private static final String COMPLETION = """
+			<think>Maybe {"testCases": [ {"bogus": true} ]}</think>
+			{"testSuite": {"name": "Pet \\"Store\\" Suite", "testCases": [
+			  {"name": "Get pet", "method": "GET", "endpoint": "/pets/{id}", "body": {"tags": ["a}"]}},
+			  {"name": "Create pet", "method": "POST", "endpoint": "/pets", "validation": ["x ] y"]}
+			]}}
+			""";
+
+	@Test
+	void emitsEachTestCaseWhenItCloses() {
+		TestCaseStreamParser parser = new TestCaseStreamParser();
+		List<String> testCases = new ArrayList<>();
+
+		// Feed the completion in small chunks, as a streamed response would arrive
+		for (int i = 0; i < COMPLETION.length(); i += 7) {
+			testCases.addAll(parser.feed(COMPLETION.substring(i, Math.min(COMPLETION.length(), i + 7))));
+		}
+
+		assertEquals(2, testCases.size());
+		assertTrue(testCases.get(0).startsWith("{\"name\": \"Get pet\""));
+		assertTrue(testCases.get(0).endsWith("[\"a}\"]}}"));
+		assertTrue(testCases.get(1).contains("\"Create pet\""));
+		assertEquals("Pet \"Store\" Suite", parser.getSuiteName());
+		assertTrue(parser.isFinished());
+	}
+
+	@Test
+	void keepsCompletedTestCasesOfTruncatedOutput() {
+		TestCaseStreamParser parser = new TestCaseStreamParser();
+		String truncated = COMPLETION.substring(0, COMPLETION.indexOf("\"Create pet\""));
+
+		List<String> testCases = parser.feed(truncated);
+
+		assertEquals(1, testCases.size());
+		assertFalse(parser.isFinished());
+	}
+}
@@ -0,0 +1,50 @@
+package com.trithabotx.apiagent.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeoutPolicyTests {
+
+	@Test
+	void derivesTheTimeoutFromAPercentileOfRecentDurations() {
+		// 100, 200, ..., 2000 ms in no particular order
+		List<Long> durations = LongStream.rangeClosed(1, 20).map(i -> (i * 7 % 20 + 1) * 100).boxed().toList();
+
+		// The 95th percentile of 20 samples is the 19th smallest
+		assertEquals(3800, TimeoutPolicy.adaptiveTimeout(durations, 95, 2.0, 1000, 30000));
+		assertEquals(1000, TimeoutPolicy.adaptiveTimeout(durations, 50, 1.0, 1000, 30000));
+		assertEquals(2000, TimeoutPolicy.adaptiveTimeout(durations, 100, 1.0, 1000, 30000));
+
+		// Kept within the bounds
+		assertEquals(3000, TimeoutPolicy.adaptiveTimeout(durations, 95, 2.0, 1000, 3000));
+		assertEquals(500, TimeoutPolicy.adaptiveTimeout(List.of(10L, 20L), 95, 2.0, 500, 3000));
+	}
+
+	@Test
+	void capsTimeoutsAtTheRunBudget() {
+		TimeoutPolicy unbounded = new TimeoutPolicy(5000, Map.of("slow", 20000), null);
+		assertEquals(20000, unbounded.timeoutFor("slow"));
+		assertEquals(5000, unbounded.timeoutFor("other"));
+		assertFalse(unbounded.isDeadlineExceeded());
+
+		TimeoutPolicy budgeted = new TimeoutPolicy(5000, Map.of("slow", 20000), 2000);
+		assertTrue(budgeted.timeoutFor("slow") <= 2000);
+		assertTrue(budgeted.timeoutFor("other") > 0);
+	}
+
+	@Test
+	void handsOutNoTimeAfterTheDeadline() throws Exception {
+		TimeoutPolicy policy = new TimeoutPolicy(5000, null, 1);
+		Thread.sleep(10);
+
+		assertTrue(policy.isDeadlineExceeded());
+		assertEquals(0, policy.timeoutFor("any"));
+	}
+}
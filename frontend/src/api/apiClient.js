@@ -29,12 +29,18 @@ export const testRunnerApi = {
   
   getTestRun: (testRunId) => 
     apiClient.get(`/test-runs/${testRunId}`),
+  
+  getTestResult: (testResultId) => 
+    apiClient.get(`/test-results/${testResultId}`),
 };
 
 export const reportApi = {
   generateReport: (testRunId) => 
     apiClient.get(`/reports/${testRunId}`),
   
+  retryInsights: (testRunId) => 
+    apiClient.post(`/reports/${testRunId}/insights`),
+  
   getReportList: (page = 0, size = 10) => 
     apiClient.get(`/reports?page=${page}&size=${size}`),
 };
@@ -6,6 +6,8 @@ const StatusBadge = ({ status, className = '' }) => {
           return 'bg-green-100 text-green-800';
         case 'failed':
           return 'bg-red-100 text-red-800';
+        case 'aborted':
+          return 'bg-orange-100 text-orange-800';
         case 'running':
           return 'bg-yellow-100 text-yellow-800';
         case 'skipped':
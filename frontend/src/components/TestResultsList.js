@@ -1,14 +1,34 @@
 import { useState } from 'react';
+import { toast } from 'react-toastify';
+import { testRunnerApi } from '../api/apiClient';
 import StatusBadge from './StatusBadge';
 
 const TestResultsList = ({ results }) => {
   const [expandedResults, setExpandedResults] = useState({});
+  // Listings carry no headers or bodies, the full result is loaded when a row is expanded
+  const [details, setDetails] = useState({});
   
   const toggleExpand = (id) => {
     setExpandedResults(prev => ({
       ...prev,
       [id]: !prev[id]
     }));
+    if (!expandedResults[id] && !details[id]) {
+      fetchDetails(id);
+    }
+  };
+  
+  const fetchDetails = async (id) => {
+    try {
+      const response = await testRunnerApi.getTestResult(id);
+      setDetails(prev => ({
+        ...prev,
+        [id]: response.data
+      }));
+    } catch (error) {
+      console.error('Error fetching test result:', error);
+      toast.error('Failed to load test result details');
+    }
   };
   
   if (!results || results.length === 0) {
@@ -21,7 +41,9 @@ const TestResultsList = ({ results }) => {
   
   return (
     <div className="space-y-3">
-      {results.map((result) => (
+      {results.map((summary) => {
+        const result = { ...summary, ...details[summary.id] };
+        return (
         <div key={result.id} className="border rounded-lg overflow-hidden">
           <div 
             className={`px-4 py-3 cursor-pointer flex justify-between items-center ${
@@ -35,7 +57,7 @@ const TestResultsList = ({ results }) => {
           >
             <div className="flex items-center">
               <StatusBadge status={result.status} className="mr-3" />
-              <span className="font-medium">{result.testCaseId}</span>
+              <span className="font-medium">{result.testCaseName || result.testCaseId}</span>
             </div>
             <div className="flex items-center space-x-3">
               <span className={`text-sm ${
@@ -138,7 +160,8 @@ const TestResultsList = ({ results }) => {
             </div>
           )}
         </div>
-      ))}
+        );
+      })}
     </div>
   );
 };
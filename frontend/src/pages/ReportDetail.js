@@ -20,6 +20,14 @@ const ReportDetail = () => {
     fetchReport();
   }, [id]);
   
+  // Insights are computed in the background, poll until they are ready
+  useEffect(() => {
+    if (!report || report.insightsStatus !== 'pending') return;
+    
+    const timer = setTimeout(refreshInsights, 5000);
+    return () => clearTimeout(timer);
+  }, [report]);
+  
   const fetchReport = async () => {
     try {
       setLoading(true);
@@ -33,6 +41,25 @@ const ReportDetail = () => {
     }
   };
   
+  const refreshInsights = async () => {
+    try {
+      const response = await reportApi.generateReport(id);
+      setReport(response.data);
+    } catch (error) {
+      console.error('Error refreshing insights:', error);
+    }
+  };
+  
+  const handleRetryInsights = async () => {
+    try {
+      await reportApi.retryInsights(id);
+      setReport(prev => ({ ...prev, insights: null, insightsStatus: 'pending' }));
+    } catch (error) {
+      console.error('Error retrying insights:', error);
+      toast.error('Failed to retry insights');
+    }
+  };
+  
   const prepareStatusData = () => {
     if (!report || !report.summary) return [];
     
@@ -246,7 +273,25 @@ const ReportDetail = () => {
             <div>
               <h2 className="text-xl font-semibold text-gray-800 mb-4">AI-Generated Insights</h2>
               
-              {report.insights && report.insights.summary ? (
+              {report.insightsStatus === 'pending' ? (
+                <div className="bg-gray-100 rounded-lg p-4 text-center">
+                  <p className="text-gray-600">Insights are being generated...</p>
+                </div>
+              ) : report.insightsStatus === 'failed' ? (
+                <div className="bg-red-50 rounded-lg p-4 text-center">
+                  <p className="text-red-700 mb-3">
+                    {report.insights && report.insights.details
+                      ? report.insights.details
+                      : 'Insights could not be generated.'}
+                  </p>
+                  <button
+                    onClick={handleRetryInsights}
+                    className="bg-indigo-600 hover:bg-indigo-700 text-white px-4 py-2 rounded-md"
+                  >
+                    Retry
+                  </button>
+                </div>
+              ) : report.insights && report.insights.summary ? (
                 <div>
                   <div className="bg-indigo-50 rounded-lg p-4 mb-6">
                     <h3 className="font-medium text-indigo-800 mb-2">Summary</h3>